@@ -1,7 +1,11 @@
 package client;
 
+import chess.ChessMove;
 import chess.ChessPiece;
 import chess.ChessPosition;
+import chess.ChessPositions;
+import chess.InvalidMoveException;
+import chess.Uci;
 import ui.InvalidUserInputException;
 
 public class ChessInputParser {
@@ -13,12 +17,29 @@ public class ChessInputParser {
         } else if (positionString.length() != 2) {
             throw new InvalidUserInputException(positionString, "Invalid positionString: '" + positionString + "'");
         }
-        int col = positionString.charAt(0) - 'a' + 1;
-        int row = positionString.charAt(1) - '1' + 1;
-        if (row < 1 || row > 8 || col < 1 || col > 8) {
+        int square = ChessPositions.parseSquare(positionString, 0);
+        if (square < 0) {
             throw new InvalidUserInputException(positionString, "Invalid positionString: '" + positionString + "'");
         }
-        return new ChessPosition(row, col);
+        return ChessPositions.fromIndex(square);
+    }
+
+    /**
+     * Determines whether the input looks like a whole move in UCI notation (e.g. "e2e4" or "e7e8q") rather than a
+     * single position.
+     */
+    public static boolean isMoveString(String rawMoveString) {
+        int length = rawMoveString.strip().length();
+        return length == 4 || length == 5;
+    }
+
+    public static ChessMove parseToMove(String rawMoveString) throws InvalidUserInputException {
+        String moveString = rawMoveString.strip().toLowerCase();
+        try {
+            return Uci.parse(moveString);
+        } catch (InvalidMoveException e) {
+            throw new InvalidUserInputException(moveString, "Invalid moveString: '" + moveString + "'");
+        }
     }
 
     public static ChessPiece.PieceType parseToPromotionPiece(String rawPromotionString)
@@ -2,6 +2,7 @@ package ui.BoardUIElement;
 
 import chess.ChessBoard;
 import chess.ChessPosition;
+import chess.ChessPositions;
 import ui.BoardUIElement.element.BackgroundElement;
 import ui.BoardUIElement.element.BoardElement;
 import ui.BoardUIElement.element.ForegroundElement;
@@ -48,7 +49,7 @@ public class BoardToUIElementParser implements BoardUIElementReader {
             return generateBorderFGElement(row, col);
         }
 
-        ChessPosition chessPos = new ChessPosition(row, col);
+        ChessPosition chessPos = ChessPositions.of(row, col);
         if (board.hasPieceAt(chessPos)) {
             return new ForegroundElement(board.getPiece(chessPos));
         }
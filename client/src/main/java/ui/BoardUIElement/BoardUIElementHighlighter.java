@@ -1,6 +1,7 @@
 package ui.BoardUIElement;
 
 import chess.ChessPosition;
+import chess.ChessPositions;
 import ui.BoardUIElement.element.BackgroundElement;
 import ui.BoardUIElement.element.BoardElement;
 
@@ -17,7 +18,7 @@ public class BoardUIElementHighlighter implements BoardUIElementReader {
 
     @Override
     public BoardElement get(int row, int col) {
-        if (highlightedPositions.contains(new ChessPosition(row, col))) {
+        if (highlightedPositions.contains(ChessPositions.of(row, col))) {
             BoardElement elem = reader.get(row, col);
             return new BoardElement(BackgroundElement.HIGHLIGHTED_SQUARE, elem.fgElem());
         } else {
@@ -66,7 +66,11 @@ public class ConsoleUI {
         if (!"".equals(prompt)) {
             println(prompt);
         }
-        ChessPosition startPosition = promptChessPosition("Enter the starting position: ");
+        String startString = promptInput("Enter the starting position, or the whole move (e.g. e2e4): ");
+        if (ChessInputParser.isMoveString(startString)) {
+            return ChessInputParser.parseToMove(startString);
+        }
+        ChessPosition startPosition = ChessInputParser.parseToPosition(startString);
         ChessPosition endPosition = promptChessPosition("Enter the ending position: ");
 
         String promotionString = promptInput("(Optional) Enter the promotion piece [Q|R|B|N]: ");
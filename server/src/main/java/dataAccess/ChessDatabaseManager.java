@@ -3,7 +3,9 @@ package dataAccess;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.List;
 
 public class ChessDatabaseManager extends DatabaseManager {
 
@@ -71,6 +73,49 @@ public class ChessDatabaseManager extends DatabaseManager {
         }
     }
 
+    /**
+     * Runs the same SQL insert once per row, as a single batch in a single transaction, and returns the key the
+     * database generated for each row. Either every row is inserted or none are.
+     *
+     * @param sqlString the SQL insert to execute
+     * @param rows      one lambda per row, each inserting that row's parameters
+     * @return the generated key of each row, in the same order as the rows
+     */
+    static int[] insertBatch(String sqlString, List<StatementPreparer> rows) throws DataAccessException {
+        if (rows.isEmpty()) {
+            return new int[0];
+        }
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (var preparedStatement = conn.prepareStatement(sqlString, Statement.RETURN_GENERATED_KEYS)) {
+                for (StatementPreparer row : rows) {
+                    row.prepare(preparedStatement);
+                    preparedStatement.addBatch();
+                }
+                preparedStatement.executeBatch();
+
+                int[] keys = new int[rows.size()];
+                try (ResultSet rs = preparedStatement.getGeneratedKeys()) {
+                    for (int i = 0; i < keys.length; i++) {
+                        if (!rs.next()) {
+                            throw new SQLException("Inserted a batch of " + keys.length
+                                    + " rows with no errors but only " + i + " generated keys were returned.");
+                        }
+                        keys[i] = rs.getInt(1);
+                    }
+                }
+                conn.commit();
+                return keys;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.out.println("Failed to run executeBatch() (with generated keys) on SQL String: `" + sqlString + "`");
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
     static void updateWithParam(String sqlString, String param) throws DataAccessException {
         update(sqlString, preparedStatement -> {
             preparedStatement.setString(1, param);
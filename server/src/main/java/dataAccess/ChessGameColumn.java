@@ -0,0 +1,29 @@
+package dataAccess;
+
+import chess.ChessGame;
+import chess.GameCodec;
+import chess.GameSnapshot;
+import http.ChessSerializer;
+
+import java.util.Base64;
+
+/**
+ * Converts game states to and from the text stored in the game column of the games table. Games are stored as the
+ * Base64 text of their {@link GameCodec} record, about 50 characters. Rows written before that stored the game as
+ * JSON, which is still read.
+ */
+final class ChessGameColumn {
+    private ChessGameColumn() {
+    }
+
+    static String toColumn(GameSnapshot snapshot) {
+        return Base64.getEncoder().encodeToString(snapshot.toBytes());
+    }
+
+    static ChessGame fromColumn(String column) {
+        if (column.startsWith("{")) {
+            return ChessSerializer.gson().fromJson(column, ChessGame.class);
+        }
+        return GameCodec.decode(Base64.getDecoder().decode(column));
+    }
+}
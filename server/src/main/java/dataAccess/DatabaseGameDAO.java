@@ -1,6 +1,6 @@
 package dataAccess;
 
-import http.ChessSerializer;
+import chess.GameSnapshot;
 import http.GameListItem;
 import model.Game;
 
@@ -9,6 +9,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.List;
 
 public class DatabaseGameDAO implements GameDAO {
     private static final String CREATE_GAMES_TABLE = """
@@ -58,7 +59,7 @@ public class DatabaseGameDAO implements GameDAO {
             throw new ValueAlreadyTakenException(msg);
         }
 
-        String chessGameStr = ChessSerializer.gson().toJson(game.chessGame());
+        String chessGameStr = ChessGameColumn.toColumn(game.snapshot());
 
         ChessDatabaseManager.update("INSERT INTO games (gameId, gameName, game) VALUES (?, ?, ?)", preparedStatement -> {
             preparedStatement.setInt(1, game.gameID());
@@ -67,6 +68,26 @@ public class DatabaseGameDAO implements GameDAO {
         });
     }
 
+    /**
+     * Inserts many new Games in a single batched transaction. The database generates their gameIDs as it inserts
+     * them, so no gameID has to be reserved beforehand.
+     *
+     * @param games the Games to insert
+     * @return the gameID given to each Game, in the same order as the Games
+     */
+    @Override
+    public int[] insertNewGames(List<NewGame> games) throws DataAccessException {
+        List<StatementPreparer> rows = new ArrayList<>(games.size());
+        for (NewGame game : games) {
+            String chessGameStr = ChessGameColumn.toColumn(GameSnapshot.of(game.chessGame()));
+            rows.add(preparedStatement -> {
+                preparedStatement.setString(1, game.gameName());
+                preparedStatement.setString(2, chessGameStr);
+            });
+        }
+        return ChessDatabaseManager.insertBatch("INSERT INTO games (gameName, game) VALUES (?, ?)", rows);
+    }
+
     /**
      * Fetches the Game with the given ID from the database.
      *
@@ -185,7 +206,7 @@ public class DatabaseGameDAO implements GameDAO {
         // Failures: game not found
         assertIDExists(game.gameID());
 
-        String chessGameString = ChessSerializer.gson().toJson(game.chessGame());
+        String chessGameString = ChessGameColumn.toColumn(game.snapshot());
 
         ChessDatabaseManager.update("UPDATE games SET game=? WHERE gameId=?", preparedStatement -> {
             preparedStatement.setString(1, chessGameString);
@@ -228,8 +249,8 @@ public class DatabaseGameDAO implements GameDAO {
     // TODO Extract these into a helper class
     private int addEmptyGameAndReturnGeneratedID() throws DataAccessException {
         String sqlString = "INSERT INTO games (gameName, game) VALUES ('', '')";
-        Connection conn = DatabaseManager.getConnection();
-        try (var preparedStatement = conn.prepareStatement(sqlString, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = DatabaseManager.getConnection();
+             var preparedStatement = conn.prepareStatement(sqlString, Statement.RETURN_GENERATED_KEYS)) {
             preparedStatement.executeUpdate();
             ResultSet rs = preparedStatement.getGeneratedKeys();
 
@@ -244,9 +265,6 @@ public class DatabaseGameDAO implements GameDAO {
             System.out.println(
                     "Failed to run executeUpdate() (with generated keys) on SQL String: `" + sqlString + "`");
             throw new DataAccessException(e.getMessage());
-            // TODO return connection?
-//        } finally {
-//            database.returnConnection(conn);
         }
     }
 
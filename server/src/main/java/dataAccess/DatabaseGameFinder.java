@@ -1,7 +1,6 @@
 package dataAccess;
 
 import chess.ChessGame;
-import http.ChessSerializer;
 import model.Game;
 
 import java.sql.Connection;
@@ -14,9 +13,7 @@ public class DatabaseGameFinder {
     public static Game find(int gameID) throws DataAccessException {
         GameQueryResult gameQueryResult = queryForGame(gameID);
         String gameName = gameQueryResult.gameName();
-        String chessGameJson = gameQueryResult.chessGameJson();
-
-        ChessGame chessGame = ChessSerializer.gson().fromJson(chessGameJson, ChessGame.class);
+        ChessGame chessGame = ChessGameColumn.fromColumn(gameQueryResult.chessGameColumn());
 
         Game game = new Game(gameID, gameName, chessGame);
 
@@ -40,8 +37,8 @@ public class DatabaseGameFinder {
                     throw new NoSuchItemException(msg);
                 }
                 String gameName = rs.getString(1);
-                String chessGameJson = rs.getString(2);
-                result = new GameQueryResult(gameName, chessGameJson);
+                String chessGameColumn = rs.getString(2);
+                result = new GameQueryResult(gameName, chessGameColumn);
             }
 
         } catch (SQLException e) {
@@ -96,7 +93,7 @@ public class DatabaseGameFinder {
         }
     }
 
-    record GameQueryResult(String gameName, String chessGameJson) {
+    record GameQueryResult(String gameName, String chessGameColumn) {
     }
 
     record RoleQueryResult(String username, String role) {
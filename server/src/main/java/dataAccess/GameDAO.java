@@ -1,15 +1,26 @@
 package dataAccess;
 
+import chess.ChessGame;
 import http.GameListItem;
 import model.Game;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A DAO (Data Access Object) for CRUD operations on Games currently being played.
  */
 public interface GameDAO {
 
+    /**
+     * The name and starting state of a Game that has not been given a gameID yet.
+     *
+     * @param gameName  a human-readable name for the game
+     * @param chessGame the game's starting state
+     */
+    record NewGame(String gameName, ChessGame chessGame) {
+    }
+
     /**
      * Set up this GameDAO.
      */
@@ -28,6 +39,27 @@ public interface GameDAO {
         game already exists (same gameID)
         */
 
+    /**
+     * Inserts many new Games at once, giving each a new, unused gameID. Implementations that can should do this in a
+     * single round trip, generating the gameIDs as they insert, which is much faster than inserting the Games one by
+     * one when bulk loading.
+     *
+     * @param games the Games to insert
+     * @return the gameID given to each Game, in the same order as the Games
+     */
+    default int[] insertNewGames(List<NewGame> games) throws DataAccessException {
+        int[] gameIDs = new int[games.size()];
+        for (int i = 0; i < gameIDs.length; i++) {
+            Game game = new Game(generateNewGameID(), games.get(i).gameName(), games.get(i).chessGame());
+            insertNewGame(game);
+            gameIDs[i] = game.gameID();
+        }
+        return gameIDs;
+    }
+        /* Failures
+        can't access database
+        */
+
     /**
      * Fetches the Game with the given ID from the database.
      *
@@ -0,0 +1,116 @@
+package server.services;
+
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import chess.PgnReader;
+import chess.PgnRecord;
+import dataAccess.DataAccessException;
+import dataAccess.GameDAO;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Provides the PGN import service, which bulk-loads historical games from a PGN file into the GameDAO.
+ * <p>
+ * The file is read in batches of games. While one batch is played out on the thread pool, one game per task, the
+ * next batch is read from the file, so reading and playing overlap. Each played batch is inserted with a single call
+ * to {@link GameDAO#insertNewGames}, which also gives the games their gameIDs. At most two batches are held in
+ * memory at once, however large the file is.
+ */
+public class PgnImportService {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int MAX_GAME_NAME_LENGTH = 256;
+
+    private final GameDAO gameDAO;
+    private final ForkJoinPool pool;
+    private final int batchSize;
+
+    public PgnImportService(GameDAO gameDAO) {
+        this(gameDAO, ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+    }
+
+    public PgnImportService(GameDAO gameDAO, ForkJoinPool pool, int batchSize) {
+        this.gameDAO = gameDAO;
+        this.pool = pool;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * The outcome of an import.
+     *
+     * @param imported the number of games added to the GameDAO
+     * @param rejected the number of games skipped because their moves or starting position were invalid
+     */
+    public record ImportResult(int imported, int rejected) {
+    }
+
+    /**
+     * Imports every game in the given PGN file. Games are named after their players, and have no users assigned.
+     *
+     * @param pgnFile the PGN file to read
+     * @return how many games were imported and how many were rejected
+     */
+    public ImportResult importGames(Path pgnFile) throws IOException, DataAccessException {
+        int imported = 0;
+        int rejected = 0;
+        try (PgnReader reader = PgnReader.open(pgnFile)) {
+            List<PgnRecord> batch = readBatch(reader);
+            while (!batch.isEmpty()) {
+                ForkJoinTask<List<ChessGame>> played = pool.submit(playTask(batch));
+                List<PgnRecord> nextBatch = readBatch(reader);
+
+                List<ChessGame> chessGames = played.join();
+                List<GameDAO.NewGame> games = new ArrayList<>(chessGames.size());
+                for (int i = 0; i < chessGames.size(); i++) {
+                    if (chessGames.get(i) == null) {
+                        rejected++;
+                        continue;
+                    }
+                    games.add(new GameDAO.NewGame(gameName(batch.get(i)), chessGames.get(i)));
+                }
+                imported += gameDAO.insertNewGames(games).length;
+                batch = nextBatch;
+            }
+        }
+        return new ImportResult(imported, rejected);
+    }
+
+    private List<PgnRecord> readBatch(PgnReader reader) throws IOException {
+        List<PgnRecord> batch = new ArrayList<>(batchSize);
+        PgnRecord record;
+        while (batch.size() < batchSize && (record = reader.next()) != null) {
+            batch.add(record);
+        }
+        return batch;
+    }
+
+    /**
+     * @return a task that plays each record on its own subtask, giving null in place of any invalid game
+     */
+    private static ForkJoinTask<List<ChessGame>> playTask(List<PgnRecord> records) {
+        return ForkJoinTask.adapt(() -> records.parallelStream().map(PgnImportService::playOrNull).toList());
+    }
+
+    private static ChessGame playOrNull(PgnRecord record) {
+        try {
+            return record.play();
+        } catch (InvalidMoveException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String gameName(PgnRecord record) {
+        String white = record.tag("White");
+        String black = record.tag("Black");
+        String name = (white != null && black != null) ? white + " vs. " + black : record.tag("Event");
+        if (name == null || name.isEmpty()) {
+            name = "Imported game";
+        }
+        return name.length() > MAX_GAME_NAME_LENGTH ? name.substring(0, MAX_GAME_NAME_LENGTH) : name;
+    }
+}
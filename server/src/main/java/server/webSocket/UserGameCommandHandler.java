@@ -2,7 +2,11 @@ package server.webSocket;
 
 import chess.ChessGame;
 import chess.ChessMove;
+import chess.GameSnapshot;
+import chess.GameStatus;
 import chess.InvalidMoveException;
+import chess.San;
+import chess.Uci;
 import chess.WinState;
 import dataAccess.*;
 import http.ChessSerializer;
@@ -107,68 +111,75 @@ public class UserGameCommandHandler {
 
     public void parseAsMakeMove(Session session, String message) throws DataAccessException {
         MakeMoveGameCommand gameCommand = ChessSerializer.gson().fromJson(message, MakeMoveGameCommand.class);
-        System.out.printf("MAKE_MOVE | gameID: %d, move: %d.%d to %d.%d%n", gameCommand.getGameID(),
-                gameCommand.getMove().getStartPosition().getRow(), gameCommand.getMove().getStartPosition().getColumn(),
-                gameCommand.getMove().getEndPosition().getRow(), gameCommand.getMove().getEndPosition().getColumn());
+        System.out.printf("MAKE_MOVE | gameID: %d, move: %s%n", gameCommand.getGameID(),
+                Uci.format(gameCommand.getMove()));
 
         requireValidAuthString(gameCommand);
         requireUnfinishedGame(gameCommand.getGameID());
         ChessGame.TeamColor playerColor = requireColor(gameCommand.getAuthString(), gameCommand.getGameID());
 
         Game game = gameDAO.findGame(gameCommand.getGameID());
-        ChessGame chessGame = game.chessGame();
-        if (!playerColor.equals(chessGame.getTeamTurn())) {
-            wsServer.sendError(session, "It's the other player's turn right now.");
-            return;
-        }
-
         ChessMove move = gameCommand.getMove();
-        try {
-            chessGame.makeMove(move);
-            gameDAO.updateGameState(game);
-        } catch (InvalidMoveException e) {
-            wsServer.sendError(session, e, "Invalid move.");
-            return;
+        String moveText;
+        while (true) {
+            // Work on a private copy so that threads broadcasting the current state never see a move half made
+            GameSnapshot current = game.snapshot();
+            ChessGame chessGame = current.toChessGame();
+            if (chessGame.getWinState() != WinState.IN_PROGRESS) {
+                wsServer.sendError(session, "The game is already over.");
+                return;
+            }
+            if (!playerColor.equals(chessGame.getTeamTurn())) {
+                wsServer.sendError(session, "It's the other player's turn right now.");
+                return;
+            }
+
+            try {
+                // SAN depends on the position before the move
+                moveText = San.format(chessGame, move);
+                chessGame.makeMove(move);
+            } catch (InvalidMoveException e) {
+                wsServer.sendError(session, e, "Invalid move.");
+                return;
+            }
+            // If another command changed the game since it was read, check this move again against the new state
+            if (game.compareAndSetSnapshot(current, GameSnapshot.of(chessGame))) {
+                break;
+            }
         }
+        gameDAO.updateGameState(game);
 
         LoadGameServerMessage loadMessage = new LoadGameServerMessage(game);
         sessionManager.broadcastAll(gameCommand.getGameID(), loadMessage);
 
         String username = authDAO.getUsername(gameCommand.getAuthString());
-        String msg = getMoveNotificationString(game, username, move);
+        String msg = getMoveNotificationString(game, username, moveText);
         NotificationServerMessage notifyMessage = new NotificationServerMessage(msg);
         sessionManager.broadcast(gameCommand.getGameID(), username, notifyMessage);
     }
 
-    private String getMoveNotificationString(Game game, String username, ChessMove move) {
-        String moveString = String.format("User %s has made move %s", username, move.toString());
+    private String getMoveNotificationString(Game game, String username, String moveText) {
+        String moveString = String.format("User %s has made move %s", username, moveText);
         StringBuilder builder = new StringBuilder(moveString);
         appendGameInfo(builder, game);
         return builder.toString();
     }
 
     private void appendGameInfo(StringBuilder builder, Game game) {
-        ChessGame chessGame = game.chessGame();
-        String whiteUser = game.whiteUsername();
-        String blackUser = game.blackUsername();
-
-
-        if (chessGame.isInCheck(ChessGame.TeamColor.WHITE)) {
-            builder.append(String.format(" White (%s) is in check.", whiteUser));
-        } else if (chessGame.isInCheck(ChessGame.TeamColor.BLACK)) {
-            builder.append(String.format(" Black (%s) is in check.", blackUser));
+        // A private copy: getStatus() generates moves on the board, which must not be the published one
+        ChessGame chessGame = game.snapshot().toChessGame();
+        GameStatus status = chessGame.getStatus();
+        boolean whiteToMove = status.teamTurn() == ChessGame.TeamColor.WHITE;
+        String team = whiteToMove ? "White" : "Black";
+        String user = whiteToMove ? game.whiteUsername() : game.blackUsername();
+
+        if (status.inCheck()) {
+            builder.append(String.format(" %s (%s) is in check.", team, user));
         }
-
-        if (chessGame.isInCheckmate(ChessGame.TeamColor.WHITE)) {
-            builder.append(String.format(" White (%s) is in checkmate.", whiteUser));
-        } else if (chessGame.isInCheckmate(ChessGame.TeamColor.BLACK)) {
-            builder.append(String.format(" Black (%s) is in checkmate.", blackUser));
-        }
-
-        if (chessGame.isInStalemate(ChessGame.TeamColor.WHITE)) {
-            builder.append(String.format(" White (%s) is in stalemate.", whiteUser));
-        } else if (chessGame.isInStalemate(ChessGame.TeamColor.BLACK)) {
-            builder.append(String.format(" Black (%s) is in stalemate.", blackUser));
+        if (status.isCheckmate()) {
+            builder.append(String.format(" %s (%s) is in checkmate.", team, user));
+        } else if (status.isStalemate()) {
+            builder.append(String.format(" %s (%s) is in stalemate.", team, user));
         }
 
         if (chessGame.getWinState() == WinState.WHITE_WIN) {
@@ -195,8 +206,7 @@ public class UserGameCommandHandler {
 
     private void requireUnfinishedGame(int gameID) throws DataAccessException {
         Game game = gameDAO.findGame(gameID);
-        ChessGame chessGame = game.chessGame();
-        WinState winState = chessGame.getWinState();
+        WinState winState = game.snapshot().winState();
         if (winState != WinState.IN_PROGRESS) {
             String msg = String.format("Called requireUnfinishedGame() when winState of game %d was %s", gameID,
                     winState.name());
@@ -231,8 +241,19 @@ public class UserGameCommandHandler {
         }
 
         Game game = gameDAO.findGame(gameCommand.getGameID());
-        ChessGame chessGame = game.chessGame();
-        chessGame.resign(playerColor);
+        while (true) {
+            GameSnapshot current = game.snapshot();
+            if (current.winState() != WinState.IN_PROGRESS) {
+                wsServer.sendError(session, "The game is already over.");
+                return;
+            }
+            ChessGame chessGame = current.toChessGame();
+            chessGame.resign(playerColor);
+            // Retry on the new state if a move or another resignation landed in between
+            if (game.compareAndSetSnapshot(current, GameSnapshot.of(chessGame))) {
+                break;
+            }
+        }
         gameDAO.updateGameState(game);
 
         String username = authDAO.getUsername(gameCommand.getAuthString());
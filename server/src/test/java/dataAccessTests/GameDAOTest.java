@@ -8,6 +8,8 @@ import model.User;
 import org.junit.jupiter.api.*;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -166,6 +168,24 @@ class GameDAOTest {
         assertEquals(0, games.size());
     }
 
+    @Test
+    void insertNewGames_gives_each_game_a_new_gameID() throws DataAccessException, InvalidMoveException {
+        gameDAO.insertNewGame(game);
+        ChessGame movedChessGame = new ChessGame();
+        movedChessGame.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5)));
+        List<GameDAO.NewGame> newGames = List.of(new GameDAO.NewGame("first", new ChessGame()),
+                new GameDAO.NewGame("second", movedChessGame));
+
+        int[] gameIDs = gameDAO.insertNewGames(newGames);
+
+        assertEquals(2, gameIDs.length);
+        assertEquals(3, Set.of(game.gameID(), gameIDs[0], gameIDs[1]).size());
+        assertEquals("first", gameDAO.findGame(gameIDs[0]).gameName());
+        assertEquals("second", gameDAO.findGame(gameIDs[1]).gameName());
+        assertNotNull(gameDAO.findGame(gameIDs[1]).chessGame().getBoard().getPiece(new ChessPosition(4, 5)));
+        assertEquals(3, gameDAO.allGames().size());
+    }
+
     @Test
     void two_generated_gameIDs_are_different() throws DataAccessException {
         Assertions.assertNotEquals(gameDAO.generateNewGameID(), gameDAO.generateNewGameID());
@@ -33,10 +33,14 @@ class ListGamesServiceTest extends ServiceTest {
         authDAO.addAuthToken(token);
         service = new ListGamesService(authDAO, gameDAO);
 
-        game1.chessGame().getBoard().resetBoard();
-        game2.chessGame().getBoard().resetBoard();
-        game1.chessGame().getBoard().addPiece(new ChessPosition(3, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        game2.chessGame().getBoard().addPiece(new ChessPosition(3, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        ChessGame chessGame1 = game1.chessGame();
+        ChessGame chessGame2 = game2.chessGame();
+        chessGame1.getBoard().resetBoard();
+        chessGame2.getBoard().resetBoard();
+        chessGame1.getBoard().addPiece(new ChessPosition(3, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        chessGame2.getBoard().addPiece(new ChessPosition(3, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        game1.setChessGame(chessGame1);
+        game2.setChessGame(chessGame2);
 
         gameDAO.insertNewGame(game1);
         gameDAO.insertNewGame(game2);
@@ -0,0 +1,85 @@
+package serviceTests;
+
+import chess.WinState;
+import dataAccess.DataAccessException;
+import http.GameListItem;
+import model.Game;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import server.services.PgnImportService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+class PgnImportServiceTest extends ServiceTest {
+    private static final String PGN = """
+            [Event "Casual game"]
+            [White "Alice"]
+            [Black "Bob"]
+            [Result "0-1"]
+
+            1. f3 e5 2. g4 Qh4# 0-1
+
+            [Event "Broken game"]
+            [Result "*"]
+
+            1. e4 e5 2. Ke3 *
+
+            [Result "1-0"]
+
+            1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7# 1-0
+            """;
+
+    @TempDir
+    Path tempDir;
+    private Path pgnFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        initDAOs();
+        pgnFile = tempDir.resolve("games.pgn");
+        Files.writeString(pgnFile, PGN);
+    }
+
+    @Test
+    void imports_valid_games_and_rejects_invalid_ones() throws IOException, DataAccessException {
+        // A batch size of 2 makes the import cross a batch boundary
+        PgnImportService service = new PgnImportService(gameDAO, ForkJoinPool.commonPool(), 2);
+
+        PgnImportService.ImportResult result = service.importGames(pgnFile);
+
+        Assertions.assertEquals(new PgnImportService.ImportResult(2, 1), result);
+        ArrayList<GameListItem> games = gameDAO.allGames();
+        Assertions.assertEquals(2, games.size());
+        Set<String> names = new HashSet<>();
+        for (GameListItem item : games) {
+            names.add(item.gameName());
+        }
+        Assertions.assertEquals(Set.of("Alice vs. Bob", "Imported game"), names);
+    }
+
+    @Test
+    void imported_games_are_finished_and_do_not_reuse_gameIDs() throws IOException, DataAccessException {
+        int existingID = gameDAO.generateNewGameID();
+        gameDAO.insertNewGame(new Game(existingID, "existing"));
+
+        new PgnImportService(gameDAO).importGames(pgnFile);
+
+        Set<Integer> gameIDs = new HashSet<>();
+        for (GameListItem item : gameDAO.allGames()) {
+            gameIDs.add(item.gameID());
+            if (item.gameID() != existingID) {
+                Assertions.assertNotEquals(WinState.IN_PROGRESS, gameDAO.findGame(item.gameID()).snapshot().winState());
+            }
+        }
+        Assertions.assertEquals(3, gameIDs.size());
+        Assertions.assertEquals("existing", gameDAO.findGame(existingID).gameName());
+    }
+}
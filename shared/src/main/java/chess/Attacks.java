@@ -0,0 +1,122 @@
+package chess;
+
+/**
+ * Precomputed attack bitboards. Knight, king and pawn attacks come straight from lookup tables, and sliding piece
+ * attacks come from the magic-bitboard tables in {@link MagicBitboards}. Squares are numbered as in
+ * {@link ChessPositions}. Attack sets include squares occupied by either color.
+ * <p>
+ * Also holds the {@link #between(int, int) between} and {@link #line(int, int) line} tables used to find pins and
+ * the squares that block a check.
+ */
+public final class Attacks {
+    private static final int[][] KNIGHT_DELTAS = {{2, -1}, {2, 1}, {1, -2}, {1, 2}, {-1, -2}, {-1, 2}, {-2, -1}, {-2, 1}};
+    private static final int[][] KING_DELTAS = {{1, -1}, {1, 0}, {1, 1}, {0, -1}, {0, 1}, {-1, -1}, {-1, 0}, {-1, 1}};
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT[square] = jumps(square, KNIGHT_DELTAS);
+            KING[square] = jumps(square, KING_DELTAS);
+            PAWN[ChessGame.TeamColor.WHITE.ordinal()][square] = jumps(square, new int[][]{{1, -1}, {1, 1}});
+            PAWN[ChessGame.TeamColor.BLACK.ordinal()][square] = jumps(square, new int[][]{{-1, -1}, {-1, 1}});
+            fillLines(square);
+        }
+    }
+
+    private Attacks() {
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given color standing on the given square attacks diagonally.
+     */
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return MagicBitboards.bishopAttacks(square, occupied);
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return MagicBitboards.rookAttacks(square, occupied);
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return bishopAttacks(square, occupied) | rookAttacks(square, occupied);
+    }
+
+    /**
+     * @return the squares strictly between the two given squares if they share a row, column or diagonal, or an empty
+     * bitboard otherwise.
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return every square on the row, column or diagonal through both given squares (including them), or an empty
+     * bitboard if they are not aligned.
+     */
+    public static long line(int square1, int square2) {
+        return LINE[square1][square2];
+    }
+
+    private static void fillLines(int square) {
+        // The king steps in every direction a line can run
+        for (int[] delta : KING_DELTAS) {
+            long fullLine = ray(square, delta[0], delta[1]) | ray(square, -delta[0], -delta[1]) | 1L << square;
+            long between = 0;
+            int row = ChessPositions.row(square) + delta[0];
+            int col = ChessPositions.column(square) + delta[1];
+            while (isOnBoard(row, col)) {
+                int target = ChessPositions.index(row, col);
+                BETWEEN[square][target] = between;
+                LINE[square][target] = fullLine;
+                between |= 1L << target;
+                row += delta[0];
+                col += delta[1];
+            }
+        }
+    }
+
+    private static long ray(int square, int rowDelta, int colDelta) {
+        long ray = 0;
+        int row = ChessPositions.row(square) + rowDelta;
+        int col = ChessPositions.column(square) + colDelta;
+        while (isOnBoard(row, col)) {
+            ray |= 1L << ChessPositions.index(row, col);
+            row += rowDelta;
+            col += colDelta;
+        }
+        return ray;
+    }
+
+    private static long jumps(int square, int[][] deltas) {
+        long targets = 0;
+        for (int[] delta : deltas) {
+            int row = ChessPositions.row(square) + delta[0];
+            int col = ChessPositions.column(square) + delta[1];
+            if (isOnBoard(row, col)) {
+                targets |= 1L << ChessPositions.index(row, col);
+            }
+        }
+        return targets;
+    }
+
+    private static boolean isOnBoard(int row, int col) {
+        return 0 < row && row < 9 && 0 < col && col < 9;
+    }
+}
@@ -0,0 +1,132 @@
+package chess;
+
+import java.util.List;
+
+/**
+ * A bitboard view of a chessboard: one 64-bit mask per piece type and color, plus occupancy masks for each color and
+ * for the whole board. Bit n of each mask corresponds to square n as numbered by {@link ChessPositions}.
+ * <p>
+ * Each color's king square, the {@link CastlingRights}, the {@link Zobrist} key of the piece placement and the
+ * {@link PieceSquareTables} sums used for evaluation are kept alongside the masks, and the list of positions each
+ * color occupies is cached until that color's occupancy changes.
+ */
+final class Bitboards {
+    private static final int KING = ChessPiece.PieceType.KING.ordinal();
+
+    private final long[] pieces = new long[ChessPieces.PIECE_INDEX_COUNT];
+    private final long[] colors = new long[2];
+    private long occupied;
+    private final int[] kingSquares = {-1, -1};
+    private long placementKey;
+    private int castlingRights;
+    private int middlegame;
+    private int endgame;
+    private int phase;
+    private final int[] material = new int[2];
+
+    private final List<?>[] teamPositions = new List<?>[2];
+    private final long[] teamPositionsOccupancy = new long[2];
+
+    void add(int square, int pieceIndex) {
+        long bit = 1L << square;
+        int color = ChessPieces.colorOfIndex(pieceIndex);
+        pieces[pieceIndex] |= bit;
+        colors[color] |= bit;
+        occupied |= bit;
+        placementKey ^= Zobrist.pieceSquare(pieceIndex, square);
+        middlegame += PieceSquareTables.middlegame(pieceIndex, square);
+        endgame += PieceSquareTables.endgame(pieceIndex, square);
+        phase += PieceSquareTables.phase(pieceIndex);
+        material[color] += PieceSquareTables.materialValue(pieceIndex);
+        if (ChessPieces.typeOfIndex(pieceIndex) == KING) {
+            updateKingSquare(color, pieceIndex);
+        }
+    }
+
+    void remove(int square, int pieceIndex) {
+        long mask = ~(1L << square);
+        int color = ChessPieces.colorOfIndex(pieceIndex);
+        pieces[pieceIndex] &= mask;
+        colors[color] &= mask;
+        occupied &= mask;
+        placementKey ^= Zobrist.pieceSquare(pieceIndex, square);
+        middlegame -= PieceSquareTables.middlegame(pieceIndex, square);
+        endgame -= PieceSquareTables.endgame(pieceIndex, square);
+        phase -= PieceSquareTables.phase(pieceIndex);
+        material[color] -= PieceSquareTables.materialValue(pieceIndex);
+        if (ChessPieces.typeOfIndex(pieceIndex) == KING) {
+            updateKingSquare(color, pieceIndex);
+        }
+    }
+
+    // Boards set up by hand may have no king or more than one; the lowest-numbered square wins
+    private void updateKingSquare(int color, int pieceIndex) {
+        long kings = pieces[pieceIndex];
+        kingSquares[color] = kings == 0 ? -1 : Long.numberOfTrailingZeros(kings);
+    }
+
+    long placementKey() {
+        return placementKey;
+    }
+
+    int middlegameScore() {
+        return middlegame;
+    }
+
+    int endgameScore() {
+        return endgame;
+    }
+
+    int phase() {
+        return phase;
+    }
+
+    int material(int color) {
+        return material[color];
+    }
+
+    int castlingRights() {
+        return castlingRights;
+    }
+
+    void setCastlingRights(int castlingRights) {
+        this.castlingRights = castlingRights;
+    }
+
+    /**
+     * @return the square of the given color's king, or -1 if it has none.
+     */
+    int kingSquare(int color) {
+        return kingSquares[color];
+    }
+
+    /**
+     * @return an unmodifiable list of the positions holding the given color's pieces, in square order.
+     */
+    @SuppressWarnings("unchecked")
+    List<ChessPosition> teamPositions(int color) {
+        long occupancy = colors[color];
+        if (teamPositions[color] == null || teamPositionsOccupancy[color] != occupancy) {
+            ChessPosition[] positions = new ChessPosition[Long.bitCount(occupancy)];
+            int i = 0;
+            for (long bb = occupancy; bb != 0; bb &= bb - 1) {
+                positions[i++] = ChessPositions.fromIndex(Long.numberOfTrailingZeros(bb));
+            }
+            teamPositions[color] = List.of(positions);
+            teamPositionsOccupancy[color] = occupancy;
+        }
+        return (List<ChessPosition>) teamPositions[color];
+    }
+
+    long pieces(int pieceIndex) {
+        return pieces[pieceIndex];
+    }
+
+    long colorOccupancy(int color) {
+        return colors[color];
+    }
+
+    long occupied() {
+        return occupied;
+    }
+}
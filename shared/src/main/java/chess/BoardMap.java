@@ -34,12 +34,9 @@ public class BoardMap {
 
     public Set<ChessPosition> keySet() {
         Set<ChessPosition> positions = new HashSet<>();
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition pos = new ChessPosition(row, col);
-                if (get(pos) != null) {
-                    positions.add(pos);
-                }
+        for (int square = 0; square < 64; square++) {
+            if (board[square] != null) {
+                positions.add(ChessPositions.fromIndex(square));
             }
         }
         return positions;
@@ -0,0 +1,53 @@
+package chess;
+
+/**
+ * Castling rights packed into a 4-bit mask, one bit per king and side. A right is held while the king and the rook
+ * on that side are both still on their starting squares and have never moved. It says nothing about whether castling
+ * is possible right now, which also needs the squares between them to be empty and safe.
+ */
+public final class CastlingRights {
+    public static final int NONE = 0;
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 1 << 1;
+    public static final int BLACK_KINGSIDE = 1 << 2;
+    public static final int BLACK_QUEENSIDE = 1 << 3;
+    public static final int ALL = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+
+    /**
+     * The squares whose contents decide the castling rights: each king's and rook's starting square.
+     */
+    static final long RIGHTS_SQUARES = 1L | 1L << 4 | 1L << 7 | 1L << 56 | 1L << 60 | 1L << 63;
+
+    private CastlingRights() {
+    }
+
+    public static int kingside(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+    }
+
+    public static int queenside(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+    }
+
+    /**
+     * @return the starting square of the given color's king.
+     */
+    public static int kingStart(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? 4 : 60;
+    }
+
+    /**
+     * @return the square a king castling from the given start square to the given end square passes over, which is
+     * also where the rook ends up.
+     */
+    public static int rookDestination(int kingFrom, int kingTo) {
+        return (kingFrom + kingTo) / 2;
+    }
+
+    /**
+     * @return the starting square of the rook that castles with a king moving to the given square.
+     */
+    public static int rookStart(int kingTo) {
+        return kingTo > (kingTo & ~7) + 4 ? kingTo + 1 : kingTo - 2;
+    }
+}
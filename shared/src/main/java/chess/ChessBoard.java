@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Objects;
 
@@ -11,13 +9,41 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter signature of the existing methods.
  */
 public class ChessBoard {
+    /**
+     * Stands in for a square index when there is no square, such as when no en passant capture is possible.
+     */
+    public static final int NO_SQUARE = -1;
 
     private ChessPiece[][] pieces;
 
+    // The square a pawn capturing en passant would move to, or NO_SQUARE. Serialized so saved games keep the right.
+    private int enPassantSquare = NO_SQUARE;
+
+    // Derived from pieces, so it is not serialized. Left null until first needed, including after deserialization.
+    private transient Bitboards bitboards;
+
+    private transient final UndoStack undoStack = new UndoStack();
+
+    // Bumped on every change to the board, so that values computed from it can tell when they are out of date
+    private transient int version;
+
     public ChessBoard() {
         this.pieces = new ChessPiece[8][8];
     }
 
+    /**
+     * @return a new board with the same pieces on the same squares, and no moves to undo. The copy can be changed
+     * (for example, by another thread) without affecting this board.
+     */
+    public ChessBoard copy() {
+        ChessBoard copy = new ChessBoard();
+        for (int i = 0; i < 8; i++) {
+            copy.pieces[i] = pieces[i].clone();
+        }
+        copy.enPassantSquare = enPassantSquare;
+        return copy;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -41,7 +67,8 @@ public class ChessBoard {
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(pieces);
+        // Only the placement part of the key, since equals() ignores which pieces have moved
+        return Long.hashCode(bitboards().placementKey());
     }
 
     @Override
@@ -49,12 +76,8 @@ public class ChessBoard {
         StringBuilder builder = new StringBuilder("\n");
         for (int row = 8; row >= 1; row--) {
             for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                char symbol = ' ';
-                if (hasPieceAt(position)) {
-                    ChessPiece piece = getPiece(position);
-                    symbol = ChessPieces.symbol(piece);
-                }
+                ChessPiece piece = getPiece(ChessPositions.index(row, col));
+                char symbol = piece == null ? ' ' : ChessPieces.symbol(piece);
                 builder.append("|").append(symbol);
             }
             builder.append("|\n");
@@ -83,7 +106,173 @@ public class ChessBoard {
     }
 
     private void forceSetPiece(ChessPosition position, ChessPiece piece) {
-        pieces[position.getRow() - 1][position.getColumn() - 1] = piece;
+        setSquare(ChessPositions.index(position), piece);
+    }
+
+    private void setSquare(int square, ChessPiece piece) {
+        int row = square >>> 3;
+        int col = square & 7;
+        if (bitboards != null) {
+            ChessPiece previous = pieces[row][col];
+            if (previous != null) {
+                bitboards.remove(square, ChessPieces.index(previous));
+            }
+            if (piece != null) {
+                bitboards.add(square, ChessPieces.index(piece));
+            }
+        }
+        pieces[row][col] = piece;
+        version++;
+        if (bitboards != null && (CastlingRights.RIGHTS_SQUARES & 1L << square) != 0) {
+            bitboards.setCastlingRights(findCastlingRights());
+        }
+    }
+
+    /**
+     * Works out the castling rights from the pieces on the kings' and rooks' starting squares. Only those six squares
+     * are read, and only when one of them changes.
+     */
+    private int findCastlingRights() {
+        int rights = CastlingRights.NONE;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            int kingSquare = CastlingRights.kingStart(color);
+            if (isUnmoved(kingSquare, ChessPiece.PieceType.KING, color)) {
+                if (isUnmoved(kingSquare + 3, ChessPiece.PieceType.ROOK, color)) {
+                    rights |= CastlingRights.kingside(color);
+                }
+                if (isUnmoved(kingSquare - 4, ChessPiece.PieceType.ROOK, color)) {
+                    rights |= CastlingRights.queenside(color);
+                }
+            }
+        }
+        return rights;
+    }
+
+    private boolean isUnmoved(int square, ChessPiece.PieceType type, ChessGame.TeamColor color) {
+        ChessPiece piece = getPiece(square);
+        return piece != null && piece.getPieceType() == type && piece.getTeamColor() == color
+                && piece.hasNeverMoved();
+    }
+
+    /**
+     * Gets the {@link Zobrist} key of this board: its piece placement, castling rights and en passant square. The
+     * placement part is updated incrementally as pieces are added, removed and moved. It does not include the side to
+     * move; see {@link ChessGame#hashKey()}.
+     *
+     * @return a 64-bit hash of this board.
+     */
+    public long hashKey() {
+        Bitboards boards = bitboards();
+        long key = boards.placementKey() ^ Zobrist.castling(boards.castlingRights());
+        if (enPassantSquare != NO_SQUARE) {
+            key ^= Zobrist.enPassantColumn(ChessPositions.column(enPassantSquare));
+        }
+        return key;
+    }
+
+    /**
+     * Gets the sum of the {@link PieceSquareTables#middlegame middlegame values} of every piece on the board. Like the
+     * rest of the evaluation terms, it is updated incrementally as pieces are added, removed and moved.
+     *
+     * @return the middlegame score in centipawns, from white's point of view.
+     */
+    public int middlegameScore() {
+        return bitboards().middlegameScore();
+    }
+
+    /**
+     * @return the sum of the {@link PieceSquareTables#endgame endgame values} of every piece on the board, in
+     * centipawns from white's point of view.
+     */
+    public int endgameScore() {
+        return bitboards().endgameScore();
+    }
+
+    /**
+     * @return the {@link PieceSquareTables game phase}, from {@link PieceSquareTables#MAX_PHASE} with every piece on
+     * the board down to 0 with only kings and pawns.
+     */
+    public int gamePhase() {
+        return Math.min(bitboards().phase(), PieceSquareTables.MAX_PHASE);
+    }
+
+    /**
+     * @return the total {@link PieceSquareTables#materialValue material value} of the given color's pieces.
+     */
+    public int material(ChessGame.TeamColor color) {
+        return bitboards().material(color.ordinal());
+    }
+
+    /**
+     * @return the {@link CastlingRights} still held by each king, as a bit mask.
+     */
+    public int castlingRights() {
+        return bitboards().castlingRights();
+    }
+
+    /**
+     * @return the square a pawn capturing en passant would move to, or {@link #NO_SQUARE} if the last move was not a
+     * pawn's double step.
+     */
+    public int enPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * Sets the square a pawn capturing en passant would move to, for boards set up in the middle of a game.
+     *
+     * @param square the square, or {@link #NO_SQUARE}.
+     */
+    public void setEnPassantSquare(int square) {
+        enPassantSquare = square;
+        version++;
+    }
+
+    int version() {
+        return version;
+    }
+
+    private Bitboards bitboards() {
+        if (bitboards == null) {
+            Bitboards newBitboards = new Bitboards();
+            for (int i = 0; i < 8; i++) {
+                for (int j = 0; j < 8; j++) {
+                    ChessPiece piece = pieces[i][j];
+                    if (piece != null) {
+                        newBitboards.add(i * 8 + j, ChessPieces.index(piece));
+                    }
+                }
+            }
+            bitboards = newBitboards;
+            bitboards.setCastlingRights(findCastlingRights());
+        }
+        return bitboards;
+    }
+
+    /**
+     * Gets a bitboard of every square holding a piece of the given color and type. Bit n is set if square n (as
+     * numbered by {@link ChessPositions}) holds such a piece.
+     *
+     * @param color the color of the pieces.
+     * @param type  the type of the pieces.
+     * @return a bitboard of matching pieces.
+     */
+    public long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return bitboards().pieces(ChessPieces.index(type, color));
+    }
+
+    /**
+     * @return a bitboard of every square holding a piece of the given color.
+     */
+    public long occupancy(ChessGame.TeamColor color) {
+        return bitboards().colorOccupancy(color.ordinal());
+    }
+
+    /**
+     * @return a bitboard of every occupied square.
+     */
+    public long occupied() {
+        return bitboards().occupied();
     }
 
     /**
@@ -97,6 +286,16 @@ public class ChessBoard {
         return pieces[position.getRow() - 1][position.getColumn() - 1];
     }
 
+    /**
+     * Gets a chess piece on the chessboard.
+     *
+     * @param square the square to get the piece from, as numbered by {@link ChessPositions}.
+     * @return the piece on the square, or null if the square is empty.
+     */
+    public ChessPiece getPiece(int square) {
+        return pieces[square >>> 3][square & 7];
+    }
+
     public boolean hasPieceAt(ChessPosition position) {
         return position.isValidPosition() && getPiece(position) != null;
     }
@@ -115,42 +314,77 @@ public class ChessBoard {
 
     public void clearBoard() {
         pieces = new ChessPiece[8][8];
+        bitboards = null;
+        enPassantSquare = NO_SQUARE;
+        version++;
+    }
+
+    /**
+     * Determines whether any piece of the given color attacks the given square, by probing outward from the square
+     * with knight, king, pawn and sliding attack patterns.
+     *
+     * @param square      the square to test, as numbered by {@link ChessPositions}.
+     * @param attackColor the color of the attacking pieces.
+     * @return true if the square is attacked by at least one piece of attackColor.
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor attackColor) {
+        return attackersTo(square, attackColor, occupied()) != 0;
+    }
+
+    /**
+     * Finds every piece of the given color that attacks the given square, treating exactly the squares in the given
+     * occupancy as blocking sliding pieces. Passing an occupancy with a piece removed shows what that piece was
+     * shielding, such as the squares behind a king that is stepping away from a slider.
+     *
+     * @param square      the square to test, as numbered by {@link ChessPositions}.
+     * @param attackColor the color of the attacking pieces.
+     * @param occupied    a bitboard of the squares that block sliding pieces.
+     * @return a bitboard of the attacking pieces.
+     */
+    public long attackersTo(int square, ChessGame.TeamColor attackColor, long occupied) {
+        Bitboards boards = bitboards();
+        long queens = boards.pieces(ChessPieces.index(ChessPiece.PieceType.QUEEN, attackColor));
+        long bishops = boards.pieces(ChessPieces.index(ChessPiece.PieceType.BISHOP, attackColor)) | queens;
+        long rooks = boards.pieces(ChessPieces.index(ChessPiece.PieceType.ROOK, attackColor)) | queens;
+        long pawns = boards.pieces(ChessPieces.index(ChessPiece.PieceType.PAWN, attackColor));
+        long knights = boards.pieces(ChessPieces.index(ChessPiece.PieceType.KNIGHT, attackColor));
+        long kings = boards.pieces(ChessPieces.index(ChessPiece.PieceType.KING, attackColor));
+
+        return Attacks.pawnAttacks(ChessPieces.not(attackColor), square) & pawns
+                | Attacks.knightAttacks(square) & knights
+                | Attacks.kingAttacks(square) & kings
+                | Attacks.bishopAttacks(square, occupied) & bishops
+                | Attacks.rookAttacks(square, occupied) & rooks;
     }
 
     public ChessPosition getKingPosition(ChessGame.TeamColor color) {
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                ChessPiece piece = pieces[i][j];
-                if (piece != null && piece.getPieceType() == ChessPiece.PieceType.KING &&
-                        piece.getTeamColor() == color) {
-                    return new ChessPosition(i + 1, j + 1);
-                }
-            }
+        int square = kingSquare(color);
+        if (square < 0) {
+            throw new InvalidBoardException("Called getKingPosition() but no King piece was found");
         }
-        throw new InvalidBoardException("Called getKingPosition() but no King piece was found");
+        return ChessPositions.fromIndex(square);
     }
 
+    /**
+     * @return the square of the given color's king, as numbered by {@link ChessPositions}, or -1 if it has none.
+     */
+    public int kingSquare(ChessGame.TeamColor color) {
+        return bitboards().kingSquare(color.ordinal());
+    }
+
+    /**
+     * Gets the positions of every piece of the given color. The returned collection is unmodifiable and is reused
+     * until a piece of that color is added, removed or moved.
+     */
     public Collection<ChessPosition> getTeamPieces(ChessGame.TeamColor teamColor) {
-        Collection<ChessPosition> positions = new ArrayList<>();
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                ChessPiece piece = pieces[i][j];
-                if (piece != null && piece.getTeamColor() == teamColor) {
-                    positions.add(new ChessPosition(i + 1, j + 1));
-                }
-            }
-        }
-        return positions;
+        return bitboards().teamPositions(teamColor.ordinal());
     }
 
     public ChessPiece forceApplyMove(ChessMove move) {
         ChessPiece capturedPiece = getPiece(move.getEndPosition());
-        if (capturedPiece != null) {
-            capturedPiece = capturedPiece.copy();
-        }
         removePiece(move.getEndPosition());
 
-        ChessPiece piece = getPiece(move.getStartPosition()).copy();
+        ChessPiece piece = getPiece(move.getStartPosition());
         removePiece(move.getStartPosition());
 
         addPiece(move.getEndPosition(), piece);
@@ -158,7 +392,7 @@ public class ChessBoard {
     }
 
     public void forceRestoreFromMove(ChessMove move, ChessPiece capturedPiece) {
-        ChessPiece piece = getPiece(move.getEndPosition()).copy();
+        ChessPiece piece = getPiece(move.getEndPosition());
         removePiece(move.getEndPosition());
 
         addPiece(move.getStartPosition(), piece);
@@ -167,39 +401,125 @@ public class ChessBoard {
         }
     }
 
-    public boolean containsKing(ChessGame.TeamColor color) {
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                ChessPiece piece = pieces[i][j];
-                if (piece != null && piece.getPieceType() == ChessPiece.PieceType.KING &&
-                        piece.getTeamColor() == color) {
-                    return true;
-                }
-            }
+    /**
+     * Applies a move, promoting the moving piece if the move is a pawn promotion, and records what is needed to undo
+     * it with {@link #unmakeMove()}. Does not check whether the move is legal. The moving piece is replaced with its
+     * {@link ChessPieces#moved(ChessPiece) moved} counterpart rather than changed, so it may be shared.
+     * <p>
+     * A king moving two squares sideways castles, and a pawn moving diagonally onto the
+     * {@link #enPassantSquare() en passant square} captures en passant.
+     *
+     * @param move the move to apply. Its start position must hold a piece.
+     */
+    public void makeMove(ChessMove move) {
+        int packedMove = PackedMove.fromChessMove(move);
+        int from = PackedMove.from(packedMove);
+        int to = PackedMove.to(packedMove);
+        ChessPiece.PieceType type = getPiece(from).getPieceType();
+        int rowDistance = Math.abs(ChessPositions.row(to) - ChessPositions.row(from));
+        int colDistance = Math.abs(ChessPositions.column(to) - ChessPositions.column(from));
+
+        if (type == ChessPiece.PieceType.KING && colDistance == 2) {
+            packedMove |= PackedMove.CASTLE;
+        } else if (type == ChessPiece.PieceType.PAWN && rowDistance == 2) {
+            packedMove |= PackedMove.DOUBLE_PUSH;
+        } else if (type == ChessPiece.PieceType.PAWN && colDistance == 1 && to == enPassantSquare
+                && getPiece(to) == null) {
+            packedMove |= PackedMove.EN_PASSANT | PackedMove.CAPTURE;
         }
-        return false;
+        makeMove(packedMove);
+    }
+
+    /**
+     * Applies a {@link PackedMove packed move}. See {@link #makeMove(ChessMove)}. Castling and en passant are only
+     * recognized by their flags.
+     *
+     * @param move the packed move to apply. Its start square must hold a piece.
+     */
+    public void makeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece piece = getPiece(from);
+        int capturedSquare = PackedMove.hasFlag(move, PackedMove.EN_PASSANT) ? enPassantVictimSquare(from, to) : to;
+        ChessPiece capturedPiece = getPiece(capturedSquare);
+
+        if (PackedMove.hasFlag(move, PackedMove.CASTLE)) {
+            // Castling never captures, so the undo stack's captured piece slot holds the rook instead
+            int rookFrom = CastlingRights.rookStart(to);
+            capturedPiece = getPiece(rookFrom);
+            setSquare(rookFrom, null);
+            setSquare(CastlingRights.rookDestination(from, to), ChessPieces.moved(capturedPiece));
+        } else if (capturedSquare != to) {
+            setSquare(capturedSquare, null);
+        }
+        undoStack.push(move, piece, capturedPiece, enPassantSquare);
+
+        ChessPiece movedPiece = piece.hasNeverMoved() ? ChessPieces.moved(piece) : piece;
+        if (PackedMove.isPromotion(move) && piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+            movedPiece = ChessPieces.promote(piece, PackedMove.promotionPiece(move));
+        }
+        setSquare(from, null);
+        setSquare(to, movedPiece);
+        enPassantSquare = PackedMove.hasFlag(move, PackedMove.DOUBLE_PUSH) ? (from + to) / 2 : NO_SQUARE;
+    }
+
+    /**
+     * Reverts the most recent move applied with {@link #makeMove(int)} or {@link #makeMove(ChessMove)} that has not
+     * already been reverted.
+     */
+    public void unmakeMove() {
+        if (undoStack.isEmpty()) {
+            throw new InvalidBoardException("Called unmakeMove() with no move to undo");
+        }
+        int move = undoStack.move();
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        if (PackedMove.hasFlag(move, PackedMove.CASTLE)) {
+            setSquare(to, null);
+            setSquare(CastlingRights.rookDestination(from, to), null);
+            setSquare(CastlingRights.rookStart(to), undoStack.capturedPiece());
+        } else if (PackedMove.hasFlag(move, PackedMove.EN_PASSANT)) {
+            setSquare(to, null);
+            setSquare(enPassantVictimSquare(from, to), undoStack.capturedPiece());
+        } else {
+            setSquare(to, undoStack.capturedPiece());
+        }
+        setSquare(from, undoStack.movedPiece());
+        enPassantSquare = undoStack.enPassantSquare();
+        undoStack.pop();
+    }
+
+    /**
+     * @return the square of the pawn taken by an en passant capture: beside the capturing pawn, behind its end square.
+     */
+    private static int enPassantVictimSquare(int from, int to) {
+        return (from & ~7) | (to & 7);
+    }
+
+    public boolean containsKing(ChessGame.TeamColor color) {
+        return kingSquare(color) >= 0;
     }
 
     private void placePawns() {
         for (int col = 1; col <= 8; col++) {
-            ChessPiece whitePawn = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
-            ChessPiece blackPawn = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
-            ChessPosition whitePosition = new ChessPosition(2, col);
-            ChessPosition blackPosition = new ChessPosition(7, col);
+            ChessPiece whitePawn = ChessPieces.FromType(ChessPiece.PieceType.PAWN, ChessGame.TeamColor.WHITE);
+            ChessPiece blackPawn = ChessPieces.FromType(ChessPiece.PieceType.PAWN, ChessGame.TeamColor.BLACK);
+            ChessPosition whitePosition = ChessPositions.of(2, col);
+            ChessPosition blackPosition = ChessPositions.of(7, col);
             addPiece(whitePosition, whitePawn);
             addPiece(blackPosition, blackPawn);
         }
     }
 
     private void placeKnights() {
-        ChessPiece whiteKnight1 = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
-        ChessPiece whiteKnight2 = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
-        ChessPiece blackKnight1 = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
-        ChessPiece blackKnight2 = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
-        ChessPosition whiteKnightPosition1 = new ChessPosition(1, 2);
-        ChessPosition whiteKnightPosition2 = new ChessPosition(1, 7);
-        ChessPosition blackKnightPosition1 = new ChessPosition(8, 2);
-        ChessPosition blackKnightPosition2 = new ChessPosition(8, 7);
+        ChessPiece whiteKnight1 = ChessPieces.FromType(ChessPiece.PieceType.KNIGHT, ChessGame.TeamColor.WHITE);
+        ChessPiece whiteKnight2 = ChessPieces.FromType(ChessPiece.PieceType.KNIGHT, ChessGame.TeamColor.WHITE);
+        ChessPiece blackKnight1 = ChessPieces.FromType(ChessPiece.PieceType.KNIGHT, ChessGame.TeamColor.BLACK);
+        ChessPiece blackKnight2 = ChessPieces.FromType(ChessPiece.PieceType.KNIGHT, ChessGame.TeamColor.BLACK);
+        ChessPosition whiteKnightPosition1 = ChessPositions.of(1, 2);
+        ChessPosition whiteKnightPosition2 = ChessPositions.of(1, 7);
+        ChessPosition blackKnightPosition1 = ChessPositions.of(8, 2);
+        ChessPosition blackKnightPosition2 = ChessPositions.of(8, 7);
         addPiece(whiteKnightPosition1, whiteKnight1);
         addPiece(whiteKnightPosition2, whiteKnight2);
         addPiece(blackKnightPosition1, blackKnight1);
@@ -207,14 +527,14 @@ public class ChessBoard {
     }
 
     private void placeBishops() {
-        ChessPiece whiteBishop1 = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
-        ChessPiece whiteBishop2 = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
-        ChessPiece blackBishop1 = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
-        ChessPiece blackBishop2 = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
-        ChessPosition whiteBishopPosition1 = new ChessPosition(1, 3);
-        ChessPosition whiteBishopPosition2 = new ChessPosition(1, 6);
-        ChessPosition blackBishopPosition1 = new ChessPosition(8, 3);
-        ChessPosition blackBishopPosition2 = new ChessPosition(8, 6);
+        ChessPiece whiteBishop1 = ChessPieces.FromType(ChessPiece.PieceType.BISHOP, ChessGame.TeamColor.WHITE);
+        ChessPiece whiteBishop2 = ChessPieces.FromType(ChessPiece.PieceType.BISHOP, ChessGame.TeamColor.WHITE);
+        ChessPiece blackBishop1 = ChessPieces.FromType(ChessPiece.PieceType.BISHOP, ChessGame.TeamColor.BLACK);
+        ChessPiece blackBishop2 = ChessPieces.FromType(ChessPiece.PieceType.BISHOP, ChessGame.TeamColor.BLACK);
+        ChessPosition whiteBishopPosition1 = ChessPositions.of(1, 3);
+        ChessPosition whiteBishopPosition2 = ChessPositions.of(1, 6);
+        ChessPosition blackBishopPosition1 = ChessPositions.of(8, 3);
+        ChessPosition blackBishopPosition2 = ChessPositions.of(8, 6);
         addPiece(whiteBishopPosition1, whiteBishop1);
         addPiece(whiteBishopPosition2, whiteBishop2);
         addPiece(blackBishopPosition1, blackBishop1);
@@ -222,14 +542,14 @@ public class ChessBoard {
     }
 
     private void placeRooks() {
-        ChessPiece whiteRook1 = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
-        ChessPiece whiteRook2 = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
-        ChessPiece blackRook1 = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
-        ChessPiece blackRook2 = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
-        ChessPosition whiteRookPosition1 = new ChessPosition(1, 1);
-        ChessPosition whiteRookPosition2 = new ChessPosition(1, 8);
-        ChessPosition blackRookPosition1 = new ChessPosition(8, 1);
-        ChessPosition blackRookPosition2 = new ChessPosition(8, 8);
+        ChessPiece whiteRook1 = ChessPieces.FromType(ChessPiece.PieceType.ROOK, ChessGame.TeamColor.WHITE);
+        ChessPiece whiteRook2 = ChessPieces.FromType(ChessPiece.PieceType.ROOK, ChessGame.TeamColor.WHITE);
+        ChessPiece blackRook1 = ChessPieces.FromType(ChessPiece.PieceType.ROOK, ChessGame.TeamColor.BLACK);
+        ChessPiece blackRook2 = ChessPieces.FromType(ChessPiece.PieceType.ROOK, ChessGame.TeamColor.BLACK);
+        ChessPosition whiteRookPosition1 = ChessPositions.of(1, 1);
+        ChessPosition whiteRookPosition2 = ChessPositions.of(1, 8);
+        ChessPosition blackRookPosition1 = ChessPositions.of(8, 1);
+        ChessPosition blackRookPosition2 = ChessPositions.of(8, 8);
         addPiece(whiteRookPosition1, whiteRook1);
         addPiece(whiteRookPosition2, whiteRook2);
         addPiece(blackRookPosition1, blackRook1);
@@ -237,14 +557,14 @@ public class ChessBoard {
     }
 
     private void placeRoyals() {
-        ChessPiece whiteKing = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
-        ChessPiece blackKing = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
-        ChessPiece whiteQueen = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
-        ChessPiece blackQueen = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
-        ChessPosition whiteKingPosition = new ChessPosition(1, 5);
-        ChessPosition blackKingPosition = new ChessPosition(8, 5);
-        ChessPosition whiteQueenPosition = new ChessPosition(1, 4);
-        ChessPosition blackQueenPosition = new ChessPosition(8, 4);
+        ChessPiece whiteKing = ChessPieces.FromType(ChessPiece.PieceType.KING, ChessGame.TeamColor.WHITE);
+        ChessPiece blackKing = ChessPieces.FromType(ChessPiece.PieceType.KING, ChessGame.TeamColor.BLACK);
+        ChessPiece whiteQueen = ChessPieces.FromType(ChessPiece.PieceType.QUEEN, ChessGame.TeamColor.WHITE);
+        ChessPiece blackQueen = ChessPieces.FromType(ChessPiece.PieceType.QUEEN, ChessGame.TeamColor.BLACK);
+        ChessPosition whiteKingPosition = ChessPositions.of(1, 5);
+        ChessPosition blackKingPosition = ChessPositions.of(8, 5);
+        ChessPosition whiteQueenPosition = ChessPositions.of(1, 4);
+        ChessPosition blackQueenPosition = ChessPositions.of(8, 4);
         addPiece(whiteKingPosition, whiteKing);
         addPiece(blackKingPosition, blackKing);
         addPiece(whiteQueenPosition, whiteQueen);
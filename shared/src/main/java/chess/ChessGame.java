@@ -12,6 +12,17 @@ public class ChessGame {
     private ChessBoard board;
     private TeamColor teamTurn;
     private WinState winState = WinState.IN_PROGRESS;
+    private int halfmoveClock = 0;
+    private int fullmoveNumber = 1;
+
+    // Reused by move generation so that it doesn't allocate. Not serialized.
+    private transient final MoveList moveBuffer = new MoveList();
+    private transient final MoveGenerator moveGenerator = new MoveGenerator();
+
+    // Cached by getStatus(), along with the board and board version it describes. Not serialized.
+    private transient GameStatus status;
+    private transient ChessBoard statusBoard;
+    private transient int statusBoardVersion;
 
     public ChessGame() {
         board = new ChessBoard();
@@ -19,6 +30,15 @@ public class ChessGame {
         teamTurn = TeamColor.WHITE;
     }
 
+    /**
+     * Creates a game on the given board, for readers such as {@link Fen} that build the board themselves and would
+     * otherwise throw away a freshly reset one.
+     */
+    ChessGame(ChessBoard board, TeamColor teamTurn) {
+        this.board = board;
+        this.teamTurn = teamTurn;
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -51,6 +71,10 @@ public class ChessGame {
         return winState;
     }
 
+    void setWinState(WinState winState) {
+        this.winState = winState;
+    }
+
     private boolean isGameOver() {
         return getWinState() == WinState.WHITE_WIN || getWinState() == WinState.BLACK_WIN;
     }
@@ -62,19 +86,82 @@ public class ChessGame {
      * @return Set of valid moves for requested piece, or null if no piece at startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        Collection<ChessMove> validMoves = new HashSet<>();
-
         ChessPiece piece = board.getPiece(startPosition);
-        Collection<ChessMove> potentialMoves = piece.pieceMoves(board, startPosition);
-        for (ChessMove move : potentialMoves) {
-            if (!wouldLeaveInCheck(move)) {
-                validMoves.add(move);
-            }
+        if (piece == null) {
+            return null;
         }
 
+        MoveList moves = legalMovesFrom(ChessPositions.index(startPosition), piece);
+        Collection<ChessMove> validMoves = new HashSet<>(moves.size() * 2);
+        for (int i = 0; i < moves.size(); i++) {
+            validMoves.add(PackedMove.toChessMove(moves.get(i)));
+        }
         return validMoves;
     }
 
+    /**
+     * Fills the move buffer with the legal moves of the given piece, which stands on the given square.
+     */
+    private MoveList legalMovesFrom(int square, ChessPiece piece) {
+        int[] moves = legalMoves(piece.getTeamColor()).moves();
+        moveBuffer.clear();
+        for (int move : moves) {
+            if (PackedMove.from(move) == square) {
+                moveBuffer.add(move);
+            }
+        }
+        return moveBuffer;
+    }
+
+    /**
+     * Gets every legal move of the given color in the current position. The side to move's moves come from the
+     * shared {@link LegalMoveCache} if the position has been seen recently, or else are generated and cached.
+     * <p>
+     * The other color's moves are never cached. The key only describes a position with its side to move, and the
+     * board's key only records the en passant column, so the same key would also stand for the opposite color to move
+     * with the en passant square on the other side of the board, where different captures are legal.
+     */
+    private LegalMoveCache.Entry legalMoves(TeamColor color) {
+        long key = board.hashKey() ^ Zobrist.sideToMove(teamTurn);
+        if (color != teamTurn) {
+            return generateLegalMoves(color, key);
+        }
+        LegalMoveCache cache = LegalMoveCache.shared();
+        LegalMoveCache.Entry entry = cache.get(key);
+        if (entry == null) {
+            entry = generateLegalMoves(color, key);
+            cache.put(entry);
+        }
+        return entry;
+    }
+
+    private LegalMoveCache.Entry generateLegalMoves(TeamColor color, long key) {
+        moveGenerator.setPosition(board, color);
+        moveBuffer.clear();
+        moveGenerator.addLegalMoves(moveBuffer);
+        return new LegalMoveCache.Entry(key, moveBuffer.toArray(), moveGenerator.isInCheck());
+    }
+
+    /**
+     * @return the legal moves of the team whose turn it is, as packed moves. The array is shared and must not be
+     * modified.
+     */
+    int[] legalPackedMoves() {
+        return legalMoves(teamTurn).moves();
+    }
+
+    private int findLegalMove(ChessMove move) {
+        int requestedMove = PackedMove.fromChessMove(move);
+        int startSquare = PackedMove.from(requestedMove);
+        MoveList moves = legalMovesFrom(startSquare, board.getPiece(startSquare));
+        for (int i = 0; i < moves.size(); i++) {
+            if (PackedMove.sameMove(moves.get(i), requestedMove)) {
+                return moves.get(i);
+            }
+        }
+        return PackedMove.NONE;
+    }
+
     /**
      * Makes a move in a chess game
      *
@@ -92,7 +179,8 @@ public class ChessGame {
             throw new InvalidMoveException("Called makeMove() on the opponent's turn");
         }
 
-        if (!validMoves(startPosition).contains(move)) {
+        int packedMove = findLegalMove(move);
+        if (packedMove == PackedMove.NONE) {
             throw new InvalidMoveException("Called makeMove() on an invalid move");
         }
 
@@ -100,11 +188,14 @@ public class ChessGame {
             throw new InvalidMoveException("Called makeMove() after the game is over");
         }
 
-        board.forceApplyMove(move);
+        boolean resetsClock = PackedMove.hasFlag(packedMove, PackedMove.CAPTURE)
+                || board.getPiece(startPosition).getPieceType() == ChessPiece.PieceType.PAWN;
+        halfmoveClock = resetsClock ? 0 : halfmoveClock + 1;
+        if (teamTurn == TeamColor.BLACK) {
+            fullmoveNumber++;
+        }
 
-        ChessPiece piece = board.getPiece(move.getEndPosition());
-        piece.markAsHavingMoved();
-        promoteIfValid(move.getEndPosition(), move.getPromotionPiece());
+        board.makeMove(packedMove);
         changeTeamTurn();
         updateGameOver();
     }
@@ -116,12 +207,12 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        if (!board.containsKing(teamColor)) {
+        int kingSquare = board.kingSquare(teamColor);
+        if (kingSquare < 0) {
             return false;
         }
 
-        ChessPosition kingPosition = board.getKingPosition(teamColor);
-        return isPositionUnderAttackFrom(kingPosition, ChessPieces.not(teamColor));
+        return board.isSquareAttacked(kingSquare, ChessPieces.not(teamColor));
     }
 
     /**
@@ -131,20 +222,10 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        // TODO optimize?
-        if (!isInCheck(teamColor)) {
-            return false;
-        }
-
-        ChessPosition kingPosition = board.getKingPosition(teamColor);
-        if (canEscapeCheckWithPiece(kingPosition)) return false;
-
-        Collection<ChessPosition> teamPositions = board.getTeamPieces(teamColor);
-        for (ChessPosition teammatePosition : teamPositions) {
-            if (canEscapeCheckWithPiece(teammatePosition)) return false;
+        if (teamColor == teamTurn) {
+            return getStatus().isCheckmate();
         }
-
-        return true;
+        return isInCheck(teamColor) && !hasLegalMove(teamColor);
     }
 
     /**
@@ -154,38 +235,78 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        for (ChessPosition position : board.getTeamPieces(teamColor))
-            if (!validMoves(position).isEmpty()) return false;
+        if (teamColor == teamTurn) {
+            return getStatus().legalMoveCount() == 0;
+        }
+        return !hasLegalMove(teamColor);
+    }
 
-        return true;
+    /**
+     * Gets whether the team whose turn it is is in check, and how many legal moves it has. The result is computed
+     * once per position and cached until the board or turn changes.
+     *
+     * @return the status of the team whose turn it is
+     */
+    public GameStatus getStatus() {
+        if (status == null || status.teamTurn() != teamTurn || statusBoard != board
+                || statusBoardVersion != board.version()) {
+            LegalMoveCache.Entry entry = legalMoves(teamTurn);
+            status = new GameStatus(teamTurn, entry.inCheck(), entry.moves().length);
+            statusBoard = board;
+            statusBoardVersion = board.version();
+        }
+        return status;
     }
 
-    private boolean wouldLeaveInCheck(ChessMove move) {
-        TeamColor color = board.getPiece(move.getStartPosition()).getTeamColor();
-        ChessPiece capturedPiece = board.forceApplyMove(move);
-        boolean result = isInCheck(color);
-        board.forceRestoreFromMove(move, capturedPiece);
-        return result;
+    private boolean hasLegalMove(TeamColor teamColor) {
+        return legalMoves(teamColor).moves().length > 0;
     }
 
-    private boolean isPositionUnderAttackFrom(ChessPosition position, TeamColor attackColor) {
-        // TODO Implement caching?
+    /**
+     * Gets the {@link Zobrist} key of the current position, including whose turn it is. Two games in the same
+     * position have the same key, however they got there.
+     *
+     * @return a 64-bit hash of the current position
+     */
+    public long hashKey() {
+        return board.hashKey() ^ Zobrist.sideToMove(teamTurn);
+    }
 
-        for (ChessPosition attackPosition : board.getTeamPieces(attackColor)) {
+    /**
+     * @return the number of moves since the last capture or pawn move, as used by the fifty-move rule
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
 
-            ChessPiece attacker = board.getPiece(attackPosition);
-            Collection<ChessMove> attackerMoves = attacker.pieceMoves(board, attackPosition);
-            ChessMove attackMove = new ChessMove(attackPosition, position);
+    /**
+     * @return the number of the current full move, starting at 1 and increasing after each of black's moves
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
 
-            for (ChessMove validAttackerMove : attackerMoves) {
-                if (attackMove.equalsIgnorePromotion(validAttackerMove)) {
-                    return true;
-                }
-            }
+    void setMoveClocks(int halfmoveClock, int fullmoveNumber) {
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+    }
 
-        }
+    /**
+     * Sets up a new game from a FEN record. See {@link Fen}.
+     *
+     * @param fen the FEN record to read
+     * @return a game in the described position
+     * @throws IllegalArgumentException if the record is malformed
+     */
+    public static ChessGame fromFen(CharSequence fen) {
+        return Fen.parseGame(fen);
+    }
 
-        return false;
+    /**
+     * @return the FEN record of the current position
+     */
+    public String toFen() {
+        return Fen.format(this);
     }
 
     /**
@@ -210,44 +331,20 @@ public class ChessGame {
         teamTurn = ChessPieces.not(teamTurn);
     }
 
-    private void updateGameOver() {
+    /**
+     * Ends the game if the team whose turn it is has been checkmated or stalemated. Called after every move, and by
+     * readers that set a game up in the middle.
+     */
+    void updateGameOver() {
         if (isGameOver()) {
             return;
         }
-        if (isInCheckmate(TeamColor.WHITE)) {
-            winState = WinState.BLACK_WIN;
-        } else if (isInCheckmate(TeamColor.BLACK)) {
-            winState = WinState.WHITE_WIN;
-        } else if (isInStalemate(TeamColor.WHITE) || isInStalemate(TeamColor.BLACK)) {
+        // Only the team about to move can have been checkmated or stalemated by the last move
+        GameStatus currentStatus = getStatus();
+        if (currentStatus.isCheckmate()) {
+            winState = (teamTurn == TeamColor.WHITE) ? WinState.BLACK_WIN : WinState.WHITE_WIN;
+        } else if (currentStatus.isStalemate()) {
             winState = WinState.STALEMATE;
         }
     }
-
-    private void promoteIfValid(ChessPosition position, ChessPiece.PieceType promotionPiece)
-            throws InvalidMoveException {
-        if (!board.hasPieceAt(position)) {
-            throw new IllegalArgumentException("Tried to promote an empty space");
-        }
-        ChessPiece piece = board.getPiece(position);
-
-        if (piece.getPieceType() == ChessPiece.PieceType.PAWN && promotionPiece != null) {
-            if (ChessPieces.isValidPromotionPiece(promotionPiece)) {
-                ChessPiece newPiece = ChessPieces.promote(piece, promotionPiece);
-                board.removePiece(position);
-                board.addPiece(position, newPiece);
-            } else {
-                throw new InvalidMoveException("Tried to promote to an invalid type: " + promotionPiece);
-            }
-        }
-    }
-
-    private boolean canEscapeCheckWithPiece(ChessPosition position) {
-        ChessPiece piece = board.getPiece(position);
-        for (ChessMove potentialMove : piece.pieceMoves(board, position)) {
-            if (!wouldLeaveInCheck(potentialMove)) {
-                return true;
-            }
-        }
-        return false;
-    }
 }
@@ -1,9 +1,8 @@
 package chess;
 
-import chess.movementRules.*;
+import chess.movementRules.MovementRules;
 
 import java.util.Collection;
-import java.util.Objects;
 
 /**
  * Represents a single chess piece
@@ -17,14 +16,22 @@ public class ChessPiece {
     private final ChessGame.TeamColor color;
     private boolean hasNeverMoved;
 
+    // Set on the instances handed out by ChessPieces, which may be on any number of boards at once
+    private transient final boolean shared;
+
     public ChessPiece(ChessGame.TeamColor color, PieceType type) {
         this(color, type, true);
     }
 
     public ChessPiece(ChessGame.TeamColor color, PieceType type, boolean hasNeverMoved) {
+        this(color, type, hasNeverMoved, false);
+    }
+
+    ChessPiece(ChessGame.TeamColor color, PieceType type, boolean hasNeverMoved, boolean shared) {
         this.type = type;
         this.color = color;
         this.hasNeverMoved = hasNeverMoved;
+        this.shared = shared;
     }
 
     /**
@@ -53,11 +60,27 @@ public class ChessPiece {
         return type;
     }
 
+    /**
+     * @return a new piece of the same type, color and moved flag. Unlike the shared pieces from {@link ChessPieces},
+     * the copy belongs to the caller alone, so it can be marked as having moved.
+     */
     public ChessPiece copy() {
-        return ChessPieces.FromType(getPieceType(), getTeamColor(), hasNeverMoved());
+        return new ChessPiece(color, type, hasNeverMoved);
     }
 
+    /**
+     * Marks this piece as having moved. Pieces on boards are the shared instances from {@link ChessPieces}, which
+     * can't be changed; moving one means replacing it with its {@link ChessPieces#moved(ChessPiece) moved}
+     * counterpart, as {@link ChessBoard#makeMove} does.
+     *
+     * @throws UnsupportedOperationException if this is a shared piece from {@link ChessPieces}.
+     * @deprecated Use {@link ChessPieces#moved(ChessPiece)}, which works on every piece.
+     */
+    @Deprecated
     public void markAsHavingMoved() {
+        if (shared) {
+            throw new UnsupportedOperationException("Shared ChessPiece instances cannot be changed");
+        }
         hasNeverMoved = false;
     }
 
@@ -73,14 +96,15 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        return switch(board.getPiece(myPosition).getPieceType()) {
-            case KING -> new KingMovementRule().pieceMoves(board, myPosition);
-            case QUEEN -> new QueenMovementRule().pieceMoves(board, myPosition);
-            case BISHOP -> new BishopMovementRule().pieceMoves(board, myPosition);
-            case KNIGHT -> new KnightMovementRule().pieceMoves(board, myPosition);
-            case ROOK -> new RookMovementRule().pieceMoves(board, myPosition);
-            case PAWN -> new PawnMovementRule().pieceMoves(board, myPosition);
-        };
+        return MovementRules.forType(board.getPiece(myPosition).getPieceType()).pieceMoves(board, myPosition);
+    }
+
+    /**
+     * Adds this piece's moves from the given square to the given MoveList as packed moves. Does not take into
+     * account moves that are illegal due to leaving the king in danger.
+     */
+    void addMoves(ChessBoard board, int square, long targetMask, MoveList moves) {
+        MovementRules.forType(type).addMoves(board, square, targetMask, moves);
     }
 
     @Override
@@ -93,6 +117,6 @@ public class ChessPiece {
 
     @Override
     public int hashCode() {
-        return Objects.hash(type, color, hasNeverMoved);
+        return ChessPieces.index(type, color);
     }
 }
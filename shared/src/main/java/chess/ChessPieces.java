@@ -1,22 +1,65 @@
 package chess;
 
+/**
+ * Static helpers for ChessPieces. The FromType factories return shared, immutable instances (one per type, color and
+ * moved flag), so boards built from them allocate no pieces at all. A piece that moves is replaced on the board by
+ * its {@link #moved(ChessPiece) moved} counterpart rather than being changed in place.
+ */
 public final class ChessPieces {
+    /**
+     * The number of distinct piece indices: one for each combination of PieceType and TeamColor.
+     */
+    public static final int PIECE_INDEX_COUNT = 12;
+
+    // Indexed by pieceIndex * 2, plus 1 for the pieces that have never moved
+    private static final ChessPiece[] SHARED_PIECES = new ChessPiece[PIECE_INDEX_COUNT * 2];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                int pieceIndex = index(type, color);
+                SHARED_PIECES[pieceIndex * 2] = new ChessPiece(color, type, false, true);
+                SHARED_PIECES[pieceIndex * 2 + 1] = new ChessPiece(color, type, true, true);
+            }
+        }
+    }
+
     private ChessPieces() {
     }
 
+    /**
+     * Returns a compact index in the range [0, PIECE_INDEX_COUNT) identifying the given type and color. White pieces
+     * come first, in PieceType order.
+     */
+    public static int index(ChessPiece.PieceType type, ChessGame.TeamColor color) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    public static int index(ChessPiece piece) {
+        return index(piece.getPieceType(), piece.getTeamColor());
+    }
+
+    public static int colorOfIndex(int pieceIndex) {
+        return pieceIndex / 6;
+    }
+
+    public static int typeOfIndex(int pieceIndex) {
+        return pieceIndex % 6;
+    }
+
     public static ChessPiece FromType(ChessPiece.PieceType type, ChessGame.TeamColor color) {
         return FromType(type, color, true);
     }
 
     public static ChessPiece FromType(ChessPiece.PieceType type, ChessGame.TeamColor color, boolean hasNeverMoved) {
-        return switch (type) {
-            case KING -> new ChessPiece(color, ChessPiece.PieceType.KING, hasNeverMoved);
-            case QUEEN -> new ChessPiece(color, ChessPiece.PieceType.QUEEN, hasNeverMoved);
-            case BISHOP -> new ChessPiece(color, ChessPiece.PieceType.BISHOP, hasNeverMoved);
-            case KNIGHT -> new ChessPiece(color, ChessPiece.PieceType.KNIGHT, hasNeverMoved);
-            case ROOK -> new ChessPiece(color, ChessPiece.PieceType.ROOK, hasNeverMoved);
-            case PAWN -> new ChessPiece(color, ChessPiece.PieceType.PAWN, hasNeverMoved);
-        };
+        return SHARED_PIECES[index(type, color) * 2 + (hasNeverMoved ? 1 : 0)];
+    }
+
+    /**
+     * @return the shared piece of the same type and color as the given piece that has already moved.
+     */
+    public static ChessPiece moved(ChessPiece piece) {
+        return FromType(piece.getPieceType(), piece.getTeamColor(), false);
     }
 
     public static char symbol(ChessPiece piece) {
@@ -0,0 +1,79 @@
+package chess;
+
+/**
+ * Conversions between ChessPositions and square indices. Squares are numbered 0-63 starting from a1, moving right
+ * along each row, so a1 is 0, h1 is 7, a2 is 8, and h8 is 63.
+ * <p>
+ * ChessPosition is immutable, so the factory methods here hand out one shared instance per square instead of
+ * allocating a new one on every call.
+ */
+public final class ChessPositions {
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+    private static final String[] NAMES = new String[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            POSITIONS[square] = new ChessPosition(row(square), column(square));
+            NAMES[square] = String.valueOf(new char[]{(char) ('a' + column(square) - 1), (char) ('0' + row(square))});
+        }
+    }
+
+    private ChessPositions() {
+    }
+
+    /**
+     * Gets the shared ChessPosition for the given row and column. Coordinates off the board are still accepted, but
+     * get a new instance each time.
+     */
+    public static ChessPosition of(int row, int col) {
+        if (0 < row && row < 9 && 0 < col && col < 9) {
+            return POSITIONS[index(row, col)];
+        }
+        return new ChessPosition(row, col);
+    }
+
+    public static int index(ChessPosition position) {
+        return index(position.getRow(), position.getColumn());
+    }
+
+    public static int index(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    public static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    public static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    public static ChessPosition fromIndex(int square) {
+        return POSITIONS[square];
+    }
+
+    /**
+     * @return the algebraic name of the given square, such as "e4".
+     */
+    public static String name(int square) {
+        return NAMES[square];
+    }
+
+    /**
+     * Reads an algebraic square name, such as "e4", from the two characters of the given text starting at the given
+     * index.
+     *
+     * @return the square's index, or -1 if those characters don't name a square.
+     */
+    public static int parseSquare(CharSequence text, int start) {
+        if (start < 0 || start + 2 > text.length()) {
+            return -1;
+        }
+        int col = text.charAt(start) - 'a' + 1;
+        int row = text.charAt(start + 1) - '0';
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return -1;
+        }
+        return index(row, col);
+    }
+}
@@ -0,0 +1,352 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation. A FEN record has six fields separated by spaces:
+ * <ol>
+ *     <li>Piece placement: rows from 8 down to 1 separated by '/', with letters for pieces (uppercase for white) and
+ *     digits for runs of empty squares.</li>
+ *     <li>The side to move, "w" or "b".</li>
+ *     <li>Castling rights: any of K and Q for white's king and queen side and k and q for black's, or "-".</li>
+ *     <li>The en passant square, such as "e3", or "-".</li>
+ *     <li>The halfmove clock: moves since the last capture or pawn move.</li>
+ *     <li>The fullmove number, starting at 1 and increasing after each black move.</li>
+ * </ol>
+ * The two clocks may be left off, in which case they default to 0 and 1.
+ * <p>
+ * The parser reads the record in place, one character at a time, and never copies any part of it. Since a FEN record
+ * can't say whether a piece has moved, pawns on their starting rows, and kings and rooks that can still castle, are
+ * marked as never having moved, and every other piece as having moved.
+ */
+public final class Fen {
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // Piece letters in the order of ChessPieces.index()
+    private static final String PIECE_SYMBOLS = "KQBNRPkqbnrp";
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private Fen() {
+    }
+
+    /**
+     * Sets up a new game in the position described by the given FEN record. If the side to move is checkmated or
+     * stalemated, the game is already over.
+     *
+     * @throws IllegalArgumentException if the record is malformed.
+     */
+    public static ChessGame parseGame(CharSequence fen) {
+        ChessGame game = readGame(fen);
+        // A record of a finished game must load as finished, so that no more moves can be made in it
+        game.updateGameOver();
+        return game;
+    }
+
+    private static ChessGame readGame(CharSequence fen) {
+        Parser parser = new Parser(fen);
+        ChessBoard board = parser.readPlacement();
+        ChessGame.TeamColor sideToMove = parser.readSideToMove();
+        int castling = parser.readCastling();
+        int enPassantSquare = parser.readEnPassantSquare();
+        int halfmoveClock = parser.readNumber(0);
+        int fullmoveNumber = parser.readNumber(1);
+        parser.expectEnd();
+
+        markUnmovedPieces(board, castling);
+        board.setEnPassantSquare(enPassantSquare);
+
+        ChessGame game = new ChessGame(board, sideToMove);
+        game.setMoveClocks(halfmoveClock, fullmoveNumber);
+        return game;
+    }
+
+    /**
+     * Sets up a new board in the position described by the given FEN record. The side to move and the clocks are
+     * checked but otherwise ignored.
+     *
+     * @throws IllegalArgumentException if the record is malformed.
+     */
+    public static ChessBoard parseBoard(CharSequence fen) {
+        return readGame(fen).getBoard();
+    }
+
+    /**
+     * @return the FEN record of the given game's position.
+     */
+    public static String format(ChessGame game) {
+        return format(game.getBoard(), game.getTeamTurn(), game.getHalfmoveClock(), game.getFullmoveNumber());
+    }
+
+    /**
+     * @return the FEN record of the given board, with the given side to move and clocks.
+     */
+    public static String format(ChessBoard board, ChessGame.TeamColor sideToMove, int halfmoveClock,
+                                int fullmoveNumber) {
+        StringBuilder builder = new StringBuilder(90);
+        appendPlacement(board, builder);
+        builder.append(' ').append(sideToMove == ChessGame.TeamColor.WHITE ? 'w' : 'b');
+        builder.append(' ');
+        appendCastling(board.castlingRights(), builder);
+        builder.append(' ');
+        int enPassantSquare = board.enPassantSquare();
+        if (enPassantSquare == ChessBoard.NO_SQUARE) {
+            builder.append('-');
+        } else {
+            builder.append(ChessPositions.name(enPassantSquare));
+        }
+        builder.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return builder.toString();
+    }
+
+    /**
+     * @return just the piece placement field of the given board's FEN record.
+     */
+    public static String formatPlacement(ChessBoard board) {
+        StringBuilder builder = new StringBuilder(72);
+        appendPlacement(board, builder);
+        return builder.toString();
+    }
+
+    private static void appendPlacement(ChessBoard board, StringBuilder builder) {
+        for (int row = 8; row >= 1; row--) {
+            int emptyRun = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(ChessPositions.index(row, col));
+                if (piece == null) {
+                    emptyRun++;
+                    continue;
+                }
+                if (emptyRun > 0) {
+                    builder.append((char) ('0' + emptyRun));
+                    emptyRun = 0;
+                }
+                builder.append(ChessPieces.symbol(piece));
+            }
+            if (emptyRun > 0) {
+                builder.append((char) ('0' + emptyRun));
+            }
+            if (row > 1) {
+                builder.append('/');
+            }
+        }
+    }
+
+    private static void appendCastling(int rights, StringBuilder builder) {
+        if (rights == CastlingRights.NONE) {
+            builder.append('-');
+            return;
+        }
+        if ((rights & CastlingRights.WHITE_KINGSIDE) != 0) {
+            builder.append('K');
+        }
+        if ((rights & CastlingRights.WHITE_QUEENSIDE) != 0) {
+            builder.append('Q');
+        }
+        if ((rights & CastlingRights.BLACK_KINGSIDE) != 0) {
+            builder.append('k');
+        }
+        if ((rights & CastlingRights.BLACK_QUEENSIDE) != 0) {
+            builder.append('q');
+        }
+    }
+
+    /**
+     * Marks pawns on their starting rows, and kings and rooks that the given castling rights depend on, as never
+     * having moved. Every piece on the board must start out marked as having moved.
+     *
+     * @throws IllegalArgumentException if the rights need a king or rook that isn't on its starting square.
+     */
+    static void markUnmovedPieces(ChessBoard board, int castling) {
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            if (piece == null) {
+                continue;
+            }
+            ChessGame.TeamColor color = piece.getTeamColor();
+            boolean unmoved = switch (piece.getPieceType()) {
+                case PAWN -> ChessPositions.row(square) == (color == ChessGame.TeamColor.WHITE ? 2 : 7);
+                case KING -> square == CastlingRights.kingStart(color)
+                        && (castling & (CastlingRights.kingside(color) | CastlingRights.queenside(color))) != 0;
+                case ROOK -> square == CastlingRights.kingStart(color) + 3
+                        && (castling & CastlingRights.kingside(color)) != 0
+                        || square == CastlingRights.kingStart(color) - 4
+                        && (castling & CastlingRights.queenside(color)) != 0;
+                default -> false;
+            };
+            if (unmoved) {
+                board.removePiece(ChessPositions.fromIndex(square));
+                board.addPiece(ChessPositions.fromIndex(square),
+                        ChessPieces.FromType(piece.getPieceType(), color, true));
+            }
+        }
+        if (board.castlingRights() != castling) {
+            throw new IllegalArgumentException("Castling rights don't match the kings and rooks on the board");
+        }
+    }
+
+    /**
+     * Walks through a FEN record field by field, keeping only its position in the record.
+     */
+    private static final class Parser {
+        private final CharSequence fen;
+        private int index;
+
+        Parser(CharSequence fen) {
+            this.fen = fen;
+            skipSpaces();
+        }
+
+        ChessBoard readPlacement() {
+            ChessBoard board = new ChessBoard();
+            int row = 8;
+            int col = 1;
+            while (index < fen.length() && fen.charAt(index) != ' ') {
+                char c = fen.charAt(index);
+                if (c == '/') {
+                    if (col != 9 || row == 1) {
+                        throw error("Misplaced '/'");
+                    }
+                    row--;
+                    col = 1;
+                } else if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                    if (col > 9) {
+                        throw error("Row " + row + " is longer than 8 squares");
+                    }
+                } else {
+                    int pieceIndex = PIECE_SYMBOLS.indexOf(c);
+                    if (pieceIndex < 0) {
+                        throw error("Invalid piece '" + c + "'");
+                    }
+                    if (col > 8) {
+                        throw error("Row " + row + " is longer than 8 squares");
+                    }
+                    ChessGame.TeamColor color = pieceIndex < 6 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                    board.addPiece(ChessPositions.of(row, col),
+                            ChessPieces.FromType(PIECE_TYPES[ChessPieces.typeOfIndex(pieceIndex)], color, false));
+                    col++;
+                }
+                index++;
+            }
+            if (row != 1 || col != 9) {
+                throw error("Piece placement doesn't cover all 64 squares");
+            }
+            endField();
+            return board;
+        }
+
+        ChessGame.TeamColor readSideToMove() {
+            char c = next();
+            endField();
+            return switch (c) {
+                case 'w' -> ChessGame.TeamColor.WHITE;
+                case 'b' -> ChessGame.TeamColor.BLACK;
+                default -> throw error("Invalid side to move '" + c + "'");
+            };
+        }
+
+        int readCastling() {
+            if (peek() == '-') {
+                index++;
+                endField();
+                return CastlingRights.NONE;
+            }
+            int rights = CastlingRights.NONE;
+            while (index < fen.length() && fen.charAt(index) != ' ') {
+                int right = switch (fen.charAt(index)) {
+                    case 'K' -> CastlingRights.WHITE_KINGSIDE;
+                    case 'Q' -> CastlingRights.WHITE_QUEENSIDE;
+                    case 'k' -> CastlingRights.BLACK_KINGSIDE;
+                    case 'q' -> CastlingRights.BLACK_QUEENSIDE;
+                    default -> throw error("Invalid castling right '" + fen.charAt(index) + "'");
+                };
+                if ((rights & right) != 0) {
+                    throw error("Repeated castling right '" + fen.charAt(index) + "'");
+                }
+                rights |= right;
+                index++;
+            }
+            if (rights == CastlingRights.NONE) {
+                throw error("Missing castling rights");
+            }
+            endField();
+            return rights;
+        }
+
+        int readEnPassantSquare() {
+            if (peek() == '-') {
+                index++;
+                endField();
+                return ChessBoard.NO_SQUARE;
+            }
+            int square = ChessPositions.parseSquare(fen, index);
+            if (square < 0 || (ChessPositions.row(square) != 3 && ChessPositions.row(square) != 6)) {
+                throw error("Invalid en passant square");
+            }
+            index += 2;
+            endField();
+            return square;
+        }
+
+        /**
+         * Reads a non-negative number, or returns the given default if the record has already ended.
+         */
+        int readNumber(int defaultValue) {
+            if (index >= fen.length()) {
+                return defaultValue;
+            }
+            int value = 0;
+            int start = index;
+            while (index < fen.length() && fen.charAt(index) != ' ') {
+                char c = fen.charAt(index);
+                if (c < '0' || c > '9' || value > 100_000) {
+                    throw error("Invalid move counter");
+                }
+                value = value * 10 + (c - '0');
+                index++;
+            }
+            if (index == start) {
+                throw error("Missing move counter");
+            }
+            skipSpaces();
+            return value;
+        }
+
+        void expectEnd() {
+            if (index < fen.length()) {
+                throw error("Unexpected text after the last field");
+            }
+        }
+
+        private char peek() {
+            if (index >= fen.length()) {
+                throw error("FEN record ended early");
+            }
+            return fen.charAt(index);
+        }
+
+        private char next() {
+            char c = peek();
+            index++;
+            return c;
+        }
+
+        /**
+         * Checks that the current field has ended and skips the spaces before the next one.
+         */
+        private void endField() {
+            if (index < fen.length() && fen.charAt(index) != ' ') {
+                throw error("Unexpected '" + fen.charAt(index) + "'");
+            }
+            skipSpaces();
+        }
+
+        private void skipSpaces() {
+            while (index < fen.length() && fen.charAt(index) == ' ') {
+                index++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at index " + index + " of FEN record: " + fen);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package chess;
+
+/**
+ * Packs the state of a ChessGame into a fixed {@value #RECORD_BYTES}-byte record, for storage and for use as a
+ * compact cache key. The layout is:
+ * <ul>
+ *     <li>Bytes 0-31: the board, one 4-bit code per square, in square order with the lower-numbered square of each
+ *     pair in the low bits. 0 is an empty square and 1-12 are the pieces, in {@link ChessPieces#index} order plus
+ *     one.</li>
+ *     <li>Byte 32: the side to move in bit 0 (set for black), the {@link CastlingRights} in bits 1-4, and the
+ *     {@link WinState} ordinal in bits 5-7.</li>
+ *     <li>Byte 33: the en passant square, or 0xFF for none.</li>
+ *     <li>Bytes 34-35 and 36-37: the halfmove clock and fullmove number, as unsigned big-endian shorts. Larger values
+ *     are capped.</li>
+ * </ul>
+ * Like a FEN record, the board doesn't say which pieces have moved, so decoding marks pieces as {@link Fen} does.
+ * Two games encode to the same bytes exactly when they have the same position, turn, rights, result and clocks.
+ */
+public final class GameCodec {
+    public static final int RECORD_BYTES = 38;
+
+    private static final int STATE_BYTE = 32;
+    private static final int EN_PASSANT_BYTE = 33;
+    private static final int HALFMOVE_BYTES = 34;
+    private static final int FULLMOVE_BYTES = 36;
+    private static final int NO_EN_PASSANT = 0xFF;
+    private static final int MAX_CLOCK = 0xFFFF;
+    private static final WinState[] WIN_STATES = WinState.values();
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private GameCodec() {
+    }
+
+    public static byte[] encode(ChessGame game) {
+        byte[] record = new byte[RECORD_BYTES];
+        encode(game, record, 0);
+        return record;
+    }
+
+    /**
+     * Writes the given game's record into the given array, starting at the given offset.
+     */
+    public static void encode(ChessGame game, byte[] out, int offset) {
+        ChessBoard board = game.getBoard();
+        for (int square = 0; square < 64; square += 2) {
+            out[offset + square / 2] = (byte) (pieceCode(board.getPiece(square))
+                    | pieceCode(board.getPiece(square + 1)) << 4);
+        }
+        int side = game.getTeamTurn() == ChessGame.TeamColor.BLACK ? 1 : 0;
+        out[offset + STATE_BYTE] = (byte) (side | board.castlingRights() << 1 | game.getWinState().ordinal() << 5);
+        int enPassantSquare = board.enPassantSquare();
+        out[offset + EN_PASSANT_BYTE] = (byte) (enPassantSquare == ChessBoard.NO_SQUARE ? NO_EN_PASSANT
+                : enPassantSquare);
+        writeShort(out, offset + HALFMOVE_BYTES, game.getHalfmoveClock());
+        writeShort(out, offset + FULLMOVE_BYTES, game.getFullmoveNumber());
+    }
+
+    public static ChessGame decode(byte[] record) {
+        if (record.length != RECORD_BYTES) {
+            throw new IllegalArgumentException("Expected a " + RECORD_BYTES + "-byte game record, got "
+                    + record.length + " bytes");
+        }
+        return decode(record, 0);
+    }
+
+    /**
+     * Reads the game record in the given array starting at the given offset.
+     *
+     * @throws IllegalArgumentException if the record is corrupt.
+     */
+    public static ChessGame decode(byte[] in, int offset) {
+        ChessBoard board = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = pieceAt(in, offset, square);
+            if (piece != null) {
+                board.addPiece(ChessPositions.fromIndex(square), piece);
+            }
+        }
+
+        int state = in[offset + STATE_BYTE] & 0xFF;
+        int winState = state >>> 5;
+        if (winState >= WIN_STATES.length) {
+            throw new IllegalArgumentException("Invalid win state " + winState + " in game record");
+        }
+        Fen.markUnmovedPieces(board, state >>> 1 & CastlingRights.ALL);
+        int enPassantSquare = in[offset + EN_PASSANT_BYTE] & 0xFF;
+        board.setEnPassantSquare(enPassantSquare == NO_EN_PASSANT ? ChessBoard.NO_SQUARE : enPassantSquare & 63);
+
+        ChessGame game = new ChessGame(board, (state & 1) == 0 ? ChessGame.TeamColor.WHITE
+                : ChessGame.TeamColor.BLACK);
+        game.setWinState(WIN_STATES[winState]);
+        game.setMoveClocks(readShort(in, offset + HALFMOVE_BYTES), readShort(in, offset + FULLMOVE_BYTES));
+        return game;
+    }
+
+    /**
+     * Reads one square of the record starting at the given offset.
+     *
+     * @return the piece on the square, marked as having moved, or null if the square is empty.
+     * @throws IllegalArgumentException if the square's code isn't a valid piece.
+     */
+    static ChessPiece pieceAt(byte[] in, int offset, int square) {
+        int code = in[offset + square / 2] >>> (square % 2 * 4) & 0xF;
+        if (code == 0) {
+            return null;
+        }
+        if (code > ChessPieces.PIECE_INDEX_COUNT) {
+            throw new IllegalArgumentException("Invalid piece code " + code + " in game record");
+        }
+        int pieceIndex = code - 1;
+        ChessGame.TeamColor color = pieceIndex < 6 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        return ChessPieces.FromType(PIECE_TYPES[ChessPieces.typeOfIndex(pieceIndex)], color, false);
+    }
+
+    private static int pieceCode(ChessPiece piece) {
+        return piece == null ? 0 : ChessPieces.index(piece) + 1;
+    }
+
+    private static void writeShort(byte[] out, int offset, int value) {
+        int capped = Math.min(value, MAX_CLOCK);
+        out[offset] = (byte) (capped >>> 8);
+        out[offset + 1] = (byte) capped;
+    }
+
+    private static int readShort(byte[] in, int offset) {
+        return (in[offset] & 0xFF) << 8 | in[offset + 1] & 0xFF;
+    }
+}
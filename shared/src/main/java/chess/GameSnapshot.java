@@ -0,0 +1,80 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * An immutable copy of a game's state at one moment, stored as its {@value GameCodec#RECORD_BYTES}-byte
+ * {@link GameCodec} record. A snapshot can be shared freely between threads: nothing about it ever changes, so
+ * readers never need to lock it and never see a move half made. To keep playing from a snapshot, take a mutable
+ * copy with {@link #toChessGame()}.
+ */
+public final class GameSnapshot {
+    private final byte[] record;
+    private final long hashKey;
+    private final ChessGame.TeamColor teamTurn;
+    private final WinState winState;
+
+    private GameSnapshot(byte[] record, long hashKey, ChessGame.TeamColor teamTurn, WinState winState) {
+        this.record = record;
+        this.hashKey = hashKey;
+        this.teamTurn = teamTurn;
+        this.winState = winState;
+    }
+
+    /**
+     * @return a snapshot of the given game's current state. The game must not be changed by another thread while
+     * this runs.
+     */
+    public static GameSnapshot of(ChessGame game) {
+        return new GameSnapshot(GameCodec.encode(game), game.hashKey(), game.getTeamTurn(), game.getWinState());
+    }
+
+    /**
+     * @return a new, mutable game in this snapshot's state.
+     */
+    public ChessGame toChessGame() {
+        return GameCodec.decode(record, 0);
+    }
+
+    public ChessGame.TeamColor teamTurn() {
+        return teamTurn;
+    }
+
+    public WinState winState() {
+        return winState;
+    }
+
+    /**
+     * @return the Zobrist key of the snapshot's position. See {@link ChessGame#hashKey()}.
+     */
+    public long hashKey() {
+        return hashKey;
+    }
+
+    /**
+     * @return the piece on the given square, or null if it is empty. Whether the piece has moved is not recorded, so
+     * the piece is always marked as having moved.
+     */
+    public ChessPiece getPiece(ChessPosition position) {
+        return GameCodec.pieceAt(record, 0, ChessPositions.index(position));
+    }
+
+    /**
+     * @return a copy of this snapshot's GameCodec record.
+     */
+    public byte[] toBytes() {
+        return record.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(record, ((GameSnapshot) o).record);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hashKey);
+    }
+}
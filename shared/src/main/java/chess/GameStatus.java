@@ -0,0 +1,19 @@
+package chess;
+
+/**
+ * The state of a position from the point of view of the team whose turn it is: whether its king is in check and how
+ * many legal moves it has.
+ *
+ * @param teamTurn       the team to move.
+ * @param inCheck        whether teamTurn's king is attacked.
+ * @param legalMoveCount the number of legal moves teamTurn can make.
+ */
+public record GameStatus(ChessGame.TeamColor teamTurn, boolean inCheck, int legalMoveCount) {
+    public boolean isCheckmate() {
+        return inCheck && legalMoveCount == 0;
+    }
+
+    public boolean isStalemate() {
+        return !inCheck && legalMoveCount == 0;
+    }
+}
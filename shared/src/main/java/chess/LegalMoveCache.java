@@ -0,0 +1,115 @@
+package chess;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed-size, thread-safe cache of the legal moves in recently seen positions, keyed by {@link Zobrist} key. Each
+ * key maps to one slot of a power-of-two table, sized to fit a memory budget. Entries are immutable and are published
+ * with a single atomic write, so readers and writers never lock and never see a half-written entry. Two positions
+ * that land in the same slot compete for it according to the cache's {@link ReplacementPolicy}.
+ * <p>
+ * ChessGame consults {@link #shared()} before generating moves, so that games viewed or played by many users at once
+ * only generate the moves of each position once.
+ */
+public final class LegalMoveCache {
+    /**
+     * A rough size of one entry, including its slot, object headers and a typical number of moves. Used to turn a
+     * memory budget into a number of slots.
+     */
+    public static final int ESTIMATED_ENTRY_BYTES = 192;
+
+    public static final long DEFAULT_BUDGET_BYTES = 8L << 20;
+
+    private static volatile LegalMoveCache shared =
+            new LegalMoveCache(DEFAULT_BUDGET_BYTES, ReplacementPolicy.ALWAYS_REPLACE);
+
+    /**
+     * How to handle a new entry whose slot is already taken by a different position.
+     */
+    public enum ReplacementPolicy {
+        /**
+         * The new entry evicts the old one. Suits a single game moving forward, whose older positions won't recur.
+         */
+        ALWAYS_REPLACE,
+        /**
+         * The old entry is kept. Suits a fixed set of positions that are revisited over and over.
+         */
+        KEEP_EXISTING
+    }
+
+    /**
+     * The legal moves of one color in one position.
+     *
+     * @param key     the position's Zobrist key, including the color to move.
+     * @param moves   the legal moves as {@link PackedMove packed moves}. Must not be modified.
+     * @param inCheck whether the color to move is in check.
+     */
+    record Entry(long key, int[] moves, boolean inCheck) {
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int indexMask;
+    private final ReplacementPolicy policy;
+
+    /**
+     * @param budgetBytes the approximate amount of memory the cache may use when full.
+     * @param policy      how to handle two positions that map to the same slot.
+     * @throws IllegalArgumentException if the budget is too small to hold a single entry.
+     */
+    public LegalMoveCache(long budgetBytes, ReplacementPolicy policy) {
+        long entries = budgetBytes / ESTIMATED_ENTRY_BYTES;
+        if (entries < 1) {
+            throw new IllegalArgumentException("Memory budget too small for a LegalMoveCache: " + budgetBytes);
+        }
+        int slotCount = (int) Long.highestOneBit(Math.min(entries, 1 << 30));
+        this.slots = new AtomicReferenceArray<>(slotCount);
+        this.indexMask = slotCount - 1;
+        this.policy = policy;
+    }
+
+    /**
+     * @return the cache used by every ChessGame.
+     */
+    public static LegalMoveCache shared() {
+        return shared;
+    }
+
+    /**
+     * Replaces the cache used by every ChessGame with an empty one of the given size and policy.
+     */
+    public static void configureShared(long budgetBytes, ReplacementPolicy policy) {
+        shared = new LegalMoveCache(budgetBytes, policy);
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * @return the entry for the given key, or null if it isn't cached.
+     */
+    Entry get(long key) {
+        Entry entry = slots.get(slotIndex(key));
+        return (entry != null && entry.key() == key) ? entry : null;
+    }
+
+    void put(Entry entry) {
+        int index = slotIndex(entry.key());
+        if (policy == ReplacementPolicy.ALWAYS_REPLACE) {
+            slots.set(index, entry);
+        } else {
+            slots.compareAndSet(index, null, entry);
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    private int slotIndex(long key) {
+        // The low bits of a Zobrist key are as random as any, but mix in the high bits so small tables use them too
+        return (int) (key ^ key >>> 32) & indexMask;
+    }
+}
@@ -0,0 +1,263 @@
+package chess;
+
+import chess.movementRules.MovementRule;
+import chess.movementRules.MovementRules;
+
+/**
+ * Generates strictly legal moves without trying them on the board. {@link #setPosition} works out, once per
+ * position, which enemy pieces give check, which friendly pieces are pinned to their king, and which squares the
+ * king can step to safely. Each piece's moves are then generated with a target mask that already excludes every
+ * destination that would leave the king in danger:
+ * <ul>
+ *     <li>In double check, only the king may move.</li>
+ *     <li>In single check, other pieces must capture the checker or block the line between it and the king.</li>
+ *     <li>A pinned piece may only move along the line through its king and the pinning piece.</li>
+ * </ul>
+ * A side with no king is never in check and has no pinned pieces, so all of its moves are legal.
+ * <p>
+ * Castling is checked by {@link chess.movementRules.KingMovementRule} itself, since it depends on squares the king
+ * only passes over. En passant captures are the one case the masks can't decide: removing two pawns from one row can
+ * expose the king along it, and the captured pawn may be the checker without standing on the destination square.
+ * They are rare enough that each one is simply tried on the board.
+ * <p>
+ * A MoveGenerator can be reused for any number of positions and does not allocate once constructed.
+ */
+public final class MoveGenerator {
+    // Rows 1 and 8, the only squares a pawn can move to and promote on
+    private static final long LAST_ROWS = 0xFF000000000000FFL;
+
+    private final MoveList scratch = new MoveList(64);
+    private final MoveList enPassantScratch = new MoveList(4);
+
+    private ChessBoard board;
+    private ChessGame.TeamColor color;
+    private int kingSquare;
+    private long checkers;
+    private long checkMask;
+    private long pinned;
+    private long safeKingTargets;
+
+    /**
+     * Analyzes the given board from the point of view of the given color. Must be called again whenever the board
+     * changes.
+     *
+     * @param board the board to generate moves on.
+     * @param color the color of the pieces to generate moves for.
+     */
+    public void setPosition(ChessBoard board, ChessGame.TeamColor color) {
+        this.board = board;
+        this.color = color;
+        kingSquare = board.kingSquare(color);
+        checkers = 0;
+        checkMask = MovementRule.ALL_SQUARES;
+        pinned = 0;
+        safeKingTargets = MovementRule.ALL_SQUARES;
+        if (kingSquare < 0) {
+            return;
+        }
+
+        ChessGame.TeamColor enemy = ChessPieces.not(color);
+        long occupied = board.occupied();
+        checkers = board.attackersTo(kingSquare, enemy, occupied);
+        if (checkers != 0) {
+            // With two checkers, only the king can move, and the king ignores checkMask
+            checkMask = Long.bitCount(checkers) == 1
+                    ? checkers | Attacks.between(kingSquare, Long.numberOfTrailingZeros(checkers))
+                    : 0;
+        }
+        pinned = findPinned(enemy, occupied);
+        safeKingTargets = findSafeKingTargets(enemy, occupied);
+    }
+
+    private long findPinned(ChessGame.TeamColor enemy, long occupied) {
+        long enemyQueens = board.pieces(enemy, ChessPiece.PieceType.QUEEN);
+        long enemyBishops = board.pieces(enemy, ChessPiece.PieceType.BISHOP) | enemyQueens;
+        long enemyRooks = board.pieces(enemy, ChessPiece.PieceType.ROOK) | enemyQueens;
+        long snipers = Attacks.bishopAttacks(kingSquare, 0) & enemyBishops
+                | Attacks.rookAttacks(kingSquare, 0) & enemyRooks;
+
+        long team = board.occupancy(color);
+        long pinnedPieces = 0;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Attacks.between(kingSquare, Long.numberOfTrailingZeros(snipers)) & occupied;
+            if (Long.bitCount(blockers) == 1 && (blockers & team) != 0) {
+                pinnedPieces |= blockers;
+            }
+        }
+        return pinnedPieces;
+    }
+
+    private long findSafeKingTargets(ChessGame.TeamColor enemy, long occupied) {
+        // Lift the king off the board so that it can't hide behind itself from a slider that is checking it
+        long occupiedWithoutKing = occupied & ~(1L << kingSquare);
+        long safe = 0;
+        for (long targets = Attacks.kingAttacks(kingSquare); targets != 0; targets &= targets - 1) {
+            int target = Long.numberOfTrailingZeros(targets);
+            if (board.attackersTo(target, enemy, occupiedWithoutKing) == 0) {
+                safe |= 1L << target;
+            }
+        }
+        return safe;
+    }
+
+    /**
+     * @return true if the analyzed color's king is in check.
+     */
+    public boolean isInCheck() {
+        return checkers != 0;
+    }
+
+    /**
+     * @return a bitboard of the enemy pieces giving check.
+     */
+    public long checkers() {
+        return checkers;
+    }
+
+    /**
+     * Adds every legal move of the analyzed color to the given MoveList.
+     */
+    public void addLegalMoves(MoveList moves) {
+        for (long team = board.occupancy(color); team != 0; team &= team - 1) {
+            addLegalMoves(Long.numberOfTrailingZeros(team), moves);
+        }
+    }
+
+    /**
+     * Adds every legal move of the piece on the given square to the given MoveList. The piece must belong to the
+     * analyzed color.
+     *
+     * @param square the square of the piece to move, as numbered by {@link ChessPositions}.
+     * @param moves  the MoveList to add moves to.
+     */
+    public void addLegalMoves(int square, MoveList moves) {
+        addLegalMoves(square, MovementRule.ALL_SQUARES, true, moves);
+    }
+
+    /**
+     * Adds every legal capture of the analyzed color to the given MoveList, including en passant captures. Cheaper
+     * than generating every move and filtering them, since no quiet move is ever generated.
+     */
+    public void addLegalCaptures(MoveList moves) {
+        long enemies = board.occupancy(ChessPieces.not(color));
+        for (long team = board.occupancy(color); team != 0; team &= team - 1) {
+            addLegalMoves(Long.numberOfTrailingZeros(team), enemies, true, moves);
+        }
+    }
+
+    /**
+     * Adds every legal move of the analyzed color that doesn't capture, including castling and promotions without a
+     * capture, to the given MoveList. Together with {@link #addLegalCaptures} it generates every legal move.
+     */
+    public void addLegalQuietMoves(MoveList moves) {
+        long empty = ~board.occupied();
+        for (long team = board.occupancy(color); team != 0; team &= team - 1) {
+            addLegalMoves(Long.numberOfTrailingZeros(team), empty, false, moves);
+        }
+    }
+
+    /**
+     * Adds every legal promotion of the analyzed color that doesn't capture, to every promotion piece, to the given
+     * MoveList. These are a subset of {@link #addLegalQuietMoves}, for move ordering that wants them early.
+     */
+    public void addLegalQuietPromotions(MoveList moves) {
+        long emptyLastRows = ~board.occupied() & LAST_ROWS;
+        for (long pawns = board.pieces(color, ChessPiece.PieceType.PAWN); pawns != 0; pawns &= pawns - 1) {
+            addLegalMoves(Long.numberOfTrailingZeros(pawns), emptyLastRows, false, moves);
+        }
+    }
+
+    /**
+     * @param allowed   the destinations to generate moves to, on top of the legality masks. En passant captures are
+     *                  controlled separately, since their destination is empty.
+     * @param enPassant whether to generate en passant captures.
+     */
+    private void addLegalMoves(int square, long allowed, boolean enPassant, MoveList moves) {
+        ChessPiece piece = board.getPiece(square);
+        MovementRule rule = MovementRules.forType(piece.getPieceType());
+        long targetMask = targetMask(square) & allowed;
+        int enPassantSquare = board.enPassantSquare();
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN && enPassantSquare != ChessBoard.NO_SQUARE) {
+            long enPassantBit = 1L << enPassantSquare;
+            targetMask &= ~enPassantBit;
+            if (enPassant) {
+                addLegalEnPassant(rule, square, enPassantBit, moves);
+            }
+        }
+        if (targetMask != 0) {
+            rule.addMoves(board, square, targetMask, moves);
+        }
+    }
+
+    private void addLegalEnPassant(MovementRule pawnRule, int square, long enPassantBit, MoveList moves) {
+        // Double check can only be escaped by the king
+        if (Long.bitCount(checkers) > 1) {
+            return;
+        }
+        enPassantScratch.clear();
+        pawnRule.addMoves(board, square, enPassantBit, enPassantScratch);
+        for (int i = 0; i < enPassantScratch.size(); i++) {
+            int move = enPassantScratch.get(i);
+            if (kingSquare < 0) {
+                moves.add(move);
+                continue;
+            }
+            board.makeMove(move);
+            boolean exposesKing = board.isSquareAttacked(kingSquare, ChessPieces.not(color));
+            board.unmakeMove();
+            if (!exposesKing) {
+                moves.add(move);
+            }
+        }
+    }
+
+    /**
+     * @return true if the analyzed color has at least one legal move.
+     */
+    public boolean hasLegalMove() {
+        // The king is the piece most likely to have a move when in check, so try it first
+        if (kingSquare >= 0 && hasLegalMoveFrom(kingSquare)) {
+            return true;
+        }
+        for (long team = board.occupancy(color); team != 0; team &= team - 1) {
+            int square = Long.numberOfTrailingZeros(team);
+            if (square != kingSquare && hasLegalMoveFrom(square)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasLegalMoveFrom(int square) {
+        scratch.clear();
+        addLegalMoves(square, scratch);
+        return !scratch.isEmpty();
+    }
+
+    /**
+     * @return the squares the king would land on by castling, if it still has the right to. The squares between
+     * are checked for safety by the king's movement rule.
+     */
+    private long castlingTargets() {
+        int rights = board.castlingRights();
+        long targets = 0;
+        if ((rights & CastlingRights.kingside(color)) != 0) {
+            targets |= 1L << (kingSquare + 2);
+        }
+        if ((rights & CastlingRights.queenside(color)) != 0) {
+            targets |= 1L << (kingSquare - 2);
+        }
+        return targets;
+    }
+
+    private long targetMask(int square) {
+        if (square == kingSquare) {
+            return checkers == 0 ? safeKingTargets | castlingTargets() : safeKingTargets;
+        }
+        long mask = checkMask;
+        if ((pinned & 1L << square) != 0) {
+            mask &= Attacks.line(kingSquare, square);
+        }
+        return mask;
+    }
+}
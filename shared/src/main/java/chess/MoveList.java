@@ -0,0 +1,62 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A reusable buffer of {@link PackedMove packed moves} for move generators to write into. Clearing the list keeps its
+ * backing array, so a list that is reused across calls stops allocating once it has grown to fit the largest move
+ * set it has held.
+ */
+public final class MoveList {
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(256);
+    }
+
+    public MoveList(int initialCapacity) {
+        moves = new int[initialCapacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, Math.max(8, size * 2));
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    /**
+     * Discards every move at or after the given index.
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    /**
+     * @return a new array holding just the moves in this list.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(moves, size);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
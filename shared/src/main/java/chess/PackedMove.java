@@ -0,0 +1,136 @@
+package chess;
+
+/**
+ * Static helpers for moves packed into a single int, used by move generation so that it doesn't have to allocate
+ * ChessMove and ChessPosition objects. Bits 0-5 hold the start square and bits 6-11 the end square (as numbered by
+ * {@link ChessPositions}), bits 12-14 hold the promotion piece (PieceType ordinal + 1, or 0 for none), and the
+ * remaining bits hold flags describing the move.
+ * <p>
+ * Conversion to and from ChessMove should only happen at API boundaries. ChessMoves for every move a piece can make
+ * are built ahead of time, so {@link #toChessMove(int)} does not allocate.
+ */
+public final class PackedMove {
+    /**
+     * Never a legal move (its start and end squares are the same), so it can be used to mean "no move".
+     */
+    public static final int NONE = 0;
+
+    /**
+     * Set on moves that capture a piece, including en passant captures.
+     */
+    public static final int CAPTURE = 1 << 15;
+
+    /**
+     * Set on pawn moves that advance two squares.
+     */
+    public static final int DOUBLE_PUSH = 1 << 16;
+
+    /**
+     * Set on pawn captures that take a pawn en passant. The captured pawn is not on the end square.
+     */
+    public static final int EN_PASSANT = 1 << 17;
+
+    /**
+     * Set on king moves that castle. The end square is the king's; the rook's move is implied.
+     */
+    public static final int CASTLE = 1 << 18;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int PROMOTION_MASK = 0x7;
+    private static final int MOVE_MASK = (1 << 15) - 1;
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+    private static final ChessPiece.PieceType[] PROMOTION_PIECES = {ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT};
+
+    // Indexed by a packed move without its flags
+    private static final ChessMove[] CHESS_MOVES = new ChessMove[MOVE_MASK + 1];
+
+    static {
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                CHESS_MOVES[encode(from, to, NONE)] =
+                        new ChessMove(ChessPositions.fromIndex(from), ChessPositions.fromIndex(to));
+                if (isPromotionStep(from, to)) {
+                    for (ChessPiece.PieceType type : PROMOTION_PIECES) {
+                        CHESS_MOVES[encode(from, to, type, NONE)] =
+                                new ChessMove(ChessPositions.fromIndex(from), ChessPositions.fromIndex(to), type);
+                    }
+                }
+            }
+        }
+    }
+
+    private PackedMove() {
+    }
+
+    public static int encode(int from, int to, int flags) {
+        return from | to << TO_SHIFT | flags;
+    }
+
+    public static int encode(int from, int to, ChessPiece.PieceType promotionPiece, int flags) {
+        int move = encode(from, to, flags);
+        if (promotionPiece != null) {
+            move |= (promotionPiece.ordinal() + 1) << PROMOTION_SHIFT;
+        }
+        return move;
+    }
+
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int to(int move) {
+        return move >>> TO_SHIFT & SQUARE_MASK;
+    }
+
+    /**
+     * @return the piece a pawn is promoted to by this move, or null if it is not a promotion.
+     */
+    public static ChessPiece.PieceType promotionPiece(int move) {
+        int promotion = move >>> PROMOTION_SHIFT & PROMOTION_MASK;
+        return promotion == 0 ? null : PIECE_TYPES[promotion - 1];
+    }
+
+    public static boolean isPromotion(int move) {
+        return (move >>> PROMOTION_SHIFT & PROMOTION_MASK) != 0;
+    }
+
+    public static boolean hasFlag(int move, int flag) {
+        return (move & flag) != 0;
+    }
+
+    /**
+     * Determines whether two packed moves have the same start square, end square and promotion piece, ignoring any
+     * flags. A move packed from a ChessMove has no flags, so this is how it is matched against generated moves.
+     */
+    public static boolean sameMove(int move, int other) {
+        return (move & MOVE_MASK) == (other & MOVE_MASK);
+    }
+
+    public static int fromChessMove(ChessMove move) {
+        return encode(ChessPositions.index(move.getStartPosition()), ChessPositions.index(move.getEndPosition()),
+                move.getPromotionPiece(), 0);
+    }
+
+    public static ChessMove toChessMove(int move) {
+        ChessMove chessMove = CHESS_MOVES[move & MOVE_MASK];
+        if (chessMove == null) {
+            return new ChessMove(ChessPositions.fromIndex(from(move)), ChessPositions.fromIndex(to(move)),
+                    promotionPiece(move));
+        }
+        return chessMove;
+    }
+
+    /**
+     * Determines whether a pawn could promote moving between the given squares: one row forward onto the last row,
+     * and at most one column over.
+     */
+    private static boolean isPromotionStep(int from, int to) {
+        int fromRow = ChessPositions.row(from);
+        int toRow = ChessPositions.row(to);
+        boolean forwardOntoLastRow = fromRow == 7 && toRow == 8 || fromRow == 2 && toRow == 1;
+        return forwardOntoLastRow && Math.abs(ChessPositions.column(from) - ChessPositions.column(to)) <= 1;
+    }
+}
@@ -0,0 +1,167 @@
+package chess;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs {@link Perft} counts and bulk position analysis across the threads of a ForkJoinPool.
+ * <p>
+ * A count is split by move: each root move, and each reply while the remaining depth is large, becomes its own task
+ * with its own copy of the board, down to subtrees small enough to count sequentially. Bulk analysis splits a list of
+ * positions into ranges instead. Either way, no board is ever touched by two threads, and the boards passed in are
+ * copied rather than changed.
+ */
+public final class ParallelPerft {
+    /**
+     * Subtrees this deep or shallower are counted by a single thread. At depth 3 a subtree typically holds thousands
+     * of nodes, which is enough work to be worth a task.
+     */
+    private static final int SEQUENTIAL_DEPTH = 3;
+
+    private final ForkJoinPool pool;
+
+    public ParallelPerft() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelPerft(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @return the number of move sequences of exactly the given length from the given position.
+     */
+    public long count(ChessBoard board, ChessGame.TeamColor sideToMove, int depth) {
+        return pool.invoke(new CountTask(board.copy(), sideToMove, depth));
+    }
+
+    /**
+     * Counts the nodes under each root move in parallel. See {@link Perft#divide(int)}.
+     */
+    public Map<ChessMove, Long> divide(ChessBoard board, ChessGame.TeamColor sideToMove, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Perft divide needs a depth of at least 1, got " + depth);
+        }
+        List<CountTask> tasks = childTasks(board.copy(), sideToMove, depth);
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        for (CountTask task : tasks) {
+            counts.put(PackedMove.toChessMove(task.move), task.join());
+        }
+        return counts;
+    }
+
+    /**
+     * Counts each game's legal moves for the team whose turn it is.
+     *
+     * @return the number of legal moves in each game, in the same order.
+     */
+    public long[] legalMoveCounts(List<ChessGame> games) {
+        return perftCounts(games, 1);
+    }
+
+    /**
+     * Runs a perft count to the given depth on each game, from the point of view of the team whose turn it is.
+     *
+     * @return the node count of each game, in the same order.
+     */
+    public long[] perftCounts(List<ChessGame> games, int depth) {
+        long[] counts = new long[games.size()];
+        int grain = Math.max(1, games.size() / (pool.getParallelism() * 8));
+        pool.invoke(new BulkTask(games, depth, counts, 0, games.size(), grain));
+        return counts;
+    }
+
+    private static List<CountTask> childTasks(ChessBoard board, ChessGame.TeamColor color, int depth) {
+        MoveGenerator generator = new MoveGenerator();
+        MoveList moves = new MoveList();
+        generator.setPosition(board, color);
+        generator.addLegalMoves(moves);
+
+        List<CountTask> tasks = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            ChessBoard child = board.copy();
+            child.makeMove(moves.get(i));
+            CountTask task = new CountTask(child, ChessPieces.not(color), depth - 1);
+            task.move = moves.get(i);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static final class CountTask extends RecursiveTask<Long> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // Tasks are never serialized; the board only lives as long as the pool runs the task
+        private final transient ChessBoard board;
+        private final ChessGame.TeamColor color;
+        private final int depth;
+        // The move that led to this task's position, for divide output
+        private int move = PackedMove.NONE;
+
+        CountTask(ChessBoard board, ChessGame.TeamColor color, int depth) {
+            this.board = board;
+            this.color = color;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth <= SEQUENTIAL_DEPTH) {
+                return new Perft(board, color).count(depth);
+            }
+            long nodes = 0;
+            for (CountTask task : invokeAll(childTasks(board, color, depth))) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    private static final class BulkTask extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<ChessGame> games;
+        private final int depth;
+        private final long[] counts;
+        private final int start;
+        private final int end;
+        private final int grain;
+
+        BulkTask(List<ChessGame> games, int depth, long[] counts, int start, int end, int grain) {
+            this.games = games;
+            this.depth = depth;
+            this.counts = counts;
+            this.start = start;
+            this.end = end;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= grain) {
+                for (int i = start; i < end; i++) {
+                    ChessGame game = games.get(i);
+                    counts[i] = new Perft(game.getBoard().copy(), game.getTeamTurn()).count(depth);
+                }
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new BulkTask(games, depth, counts, start, middle, grain),
+                    new BulkTask(games, depth, counts, middle, end, grain));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft"). Comparing the counts against known values
+ * for {@link PerftPosition standard positions} is a strict test of move generation, and timing the count measures its
+ * throughput.
+ * <p>
+ * A Perft makes and unmakes moves on the board it is given, leaving the board as it found it when it returns. It
+ * keeps one {@link MoveGenerator} and {@link MoveList} per ply, so counting does not allocate once they exist.
+ * <p>
+ * Running this class's {@link #main} counts every standard position and reports nodes per second.
+ */
+public final class Perft {
+    private final ChessBoard board;
+    private final ChessGame.TeamColor sideToMove;
+    private MoveGenerator[] generators = new MoveGenerator[0];
+    private MoveList[] moveLists = new MoveList[0];
+
+    public Perft(ChessGame game) {
+        this(game.getBoard(), game.getTeamTurn());
+    }
+
+    public Perft(ChessBoard board, ChessGame.TeamColor sideToMove) {
+        this.board = board;
+        this.sideToMove = sideToMove;
+    }
+
+    /**
+     * The result of a timed count.
+     *
+     * @param nodes       the number of leaf nodes.
+     * @param elapsedNanos how long the count took.
+     */
+    public record Result(long nodes, long elapsedNanos) {
+        public long nodesPerSecond() {
+            return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+        }
+    }
+
+    /**
+     * @return the number of move sequences of exactly the given length from this position.
+     */
+    public long count(int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        ensurePlies(depth);
+        return count(depth, sideToMove, 0);
+    }
+
+    /**
+     * Counts to the given depth and times the count.
+     */
+    public Result timedCount(int depth) {
+        long start = System.nanoTime();
+        long nodes = count(depth);
+        return new Result(nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Counts the nodes under each legal move separately. When a count disagrees with a reference, dividing at
+     * successively deeper positions narrows it down to the move that is generated wrongly.
+     *
+     * @return the node count below each root move at the given depth, in generation order.
+     */
+    public Map<ChessMove, Long> divide(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Perft divide needs a depth of at least 1, got " + depth);
+        }
+        ensurePlies(depth);
+        MoveList moves = generateMoves(sideToMove, 0);
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            long nodes = depth == 1 ? 1 : count(depth - 1, ChessPieces.not(sideToMove), 1);
+            board.unmakeMove();
+            counts.put(PackedMove.toChessMove(move), nodes);
+        }
+        return counts;
+    }
+
+    /**
+     * Formats divide output one move per line, followed by the total.
+     */
+    public static String formatDivide(Map<ChessMove, Long> counts) {
+        StringBuilder builder = new StringBuilder();
+        long total = 0;
+        for (Map.Entry<ChessMove, Long> entry : counts.entrySet()) {
+            builder.append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+            total += entry.getValue();
+        }
+        builder.append("Moves: ").append(counts.size()).append('\n');
+        builder.append("Nodes: ").append(total).append('\n');
+        return builder.toString();
+    }
+
+    private long count(int depth, ChessGame.TeamColor color, int ply) {
+        MoveList moves = generateMoves(color, ply);
+        // Every legal move leads to exactly one leaf, so the last ply doesn't need to be played out
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        ChessGame.TeamColor opponent = ChessPieces.not(color);
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            nodes += count(depth - 1, opponent, ply + 1);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    private MoveList generateMoves(ChessGame.TeamColor color, int ply) {
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        generators[ply].setPosition(board, color);
+        generators[ply].addLegalMoves(moves);
+        return moves;
+    }
+
+    private void ensurePlies(int depth) {
+        if (generators.length >= depth) {
+            return;
+        }
+        MoveGenerator[] newGenerators = new MoveGenerator[depth];
+        MoveList[] newMoveLists = new MoveList[depth];
+        for (int ply = 0; ply < depth; ply++) {
+            newGenerators[ply] = ply < generators.length ? generators[ply] : new MoveGenerator();
+            newMoveLists[ply] = ply < moveLists.length ? moveLists[ply] : new MoveList();
+        }
+        generators = newGenerators;
+        moveLists = newMoveLists;
+    }
+
+    /**
+     * Counts each standard position to the deepest depth with a known result, or to the depth given as the first
+     * argument if it is shallower, and prints the node counts and nodes per second.
+     */
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : Integer.MAX_VALUE;
+        boolean allPassed = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+        for (PerftPosition position : PerftPosition.values()) {
+            for (int depth = 1; depth <= Math.min(maxDepth, position.maxDepth()); depth++) {
+                Result result = new Perft(position.newBoard(), position.sideToMove()).timedCount(depth);
+                long expected = position.expectedNodes(depth);
+                boolean passed = result.nodes() == expected;
+                allPassed &= passed;
+                totalNodes += result.nodes();
+                totalNanos += result.elapsedNanos();
+                System.out.printf("%-10s depth %d: %,14d nodes %,14d nps  %s%n", position, depth, result.nodes(),
+                        result.nodesPerSecond(), passed ? "OK" : "FAILED (expected " + expected + ")");
+            }
+        }
+        Result total = new Result(totalNodes, totalNanos);
+        System.out.printf("Total: %,d nodes in %.2f s, %,d nps%n", totalNodes, totalNanos / 1e9,
+                total.nodesPerSecond());
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+}
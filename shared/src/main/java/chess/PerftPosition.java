@@ -0,0 +1,56 @@
+package chess;
+
+/**
+ * Standard positions for testing move generation with {@link Perft}, given as {@link Fen FEN records} along with their
+ * published node counts.
+ */
+public enum PerftPosition {
+    START(Fen.START_POSITION,
+            20, 400, 8_902, 197_281, 4_865_609),
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            48, 2_039, 97_862, 4_085_603),
+    ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            14, 191, 2_812, 43_238, 674_624),
+    PROMOTIONS("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            6, 264, 9_467, 422_333),
+    TALKCHESS("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            44, 1_486, 62_379, 2_103_487),
+    MIDDLEGAME("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            46, 2_079, 89_890, 3_894_594);
+
+    private final String fen;
+    private final ChessGame.TeamColor sideToMove;
+    private final long[] expectedNodes;
+
+    PerftPosition(String fen, long... expectedNodes) {
+        this.fen = fen;
+        this.sideToMove = Fen.parseGame(fen).getTeamTurn();
+        this.expectedNodes = expectedNodes;
+    }
+
+    public String fen() {
+        return fen;
+    }
+
+    public ChessGame.TeamColor sideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * @return the deepest depth with a known node count.
+     */
+    public int maxDepth() {
+        return expectedNodes.length;
+    }
+
+    public long expectedNodes(int depth) {
+        return expectedNodes[depth - 1];
+    }
+
+    /**
+     * @return a new board set up in this position. See {@link Fen} for which pieces are marked as having moved.
+     */
+    public ChessBoard newBoard() {
+        return Fen.parseBoard(fen);
+    }
+}
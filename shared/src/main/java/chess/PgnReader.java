@@ -0,0 +1,151 @@
+package chess;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads the games of a PGN file one at a time, so that files of any size can be read in constant memory. Input is
+ * pulled through a fixed-size buffer and decoded as ISO-8859-1, the character set PGN is defined in. Each game is
+ * returned as a {@link PgnRecord} without playing its moves, so that callers can play them on other threads.
+ * <p>
+ * A game starts at its first tag pair line, or at its first line of movetext if it has no tags, and ends where the
+ * next game's tags start. Lines starting with '%' are escaped and skipped, as are tag lines that aren't well formed.
+ * A PgnReader is not thread-safe.
+ */
+public final class PgnReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final StringBuilder line = new StringBuilder(256);
+    private final StringBuilder movetext = new StringBuilder(1024);
+    private Map<String, String> tags = new LinkedHashMap<>();
+    private boolean endOfInput;
+
+    public PgnReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.flip();
+    }
+
+    public static PgnReader open(Path path) throws IOException {
+        return new PgnReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * @return the next game in the file, or null if there are no more.
+     */
+    public PgnRecord next() throws IOException {
+        while (readLine()) {
+            int start = skipSpaces(0);
+            if (start == line.length() || line.charAt(start) == '%') {
+                continue;
+            }
+            if (line.charAt(start) == '[') {
+                if (movetext.length() > 0) {
+                    PgnRecord record = finishRecord();
+                    addTag(start);
+                    return record;
+                }
+                addTag(start);
+            } else {
+                movetext.append(line, start, line.length()).append('\n');
+            }
+        }
+        if (movetext.length() > 0 || !tags.isEmpty()) {
+            return finishRecord();
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private PgnRecord finishRecord() {
+        PgnRecord record = new PgnRecord(Collections.unmodifiableMap(tags), movetext.toString());
+        tags = new LinkedHashMap<>();
+        movetext.setLength(0);
+        return record;
+    }
+
+    /**
+     * Reads the next line into the line buffer, without its line terminator.
+     *
+     * @return false if the input has ended and there was no line left to read.
+     */
+    private boolean readLine() throws IOException {
+        line.setLength(0);
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                if (endOfInput || !fillBuffer()) {
+                    return line.length() > 0;
+                }
+            }
+            byte b = buffer.get();
+            if (b == '\n') {
+                return true;
+            }
+            if (b != '\r') {
+                line.append((char) (b & 0xFF));
+            }
+        }
+    }
+
+    private boolean fillBuffer() throws IOException {
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        if (read < 0) {
+            endOfInput = true;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Adds the tag pair on the current line, of the form [Name "Value"], where the value may escape '"' and '\' with
+     * a backslash.
+     */
+    private void addTag(int start) {
+        int nameStart = skipSpaces(start + 1);
+        int nameEnd = nameStart;
+        while (nameEnd < line.length() && !Character.isWhitespace(line.charAt(nameEnd)) && line.charAt(nameEnd) != '"') {
+            nameEnd++;
+        }
+        int quote = skipSpaces(nameEnd);
+        if (nameEnd == nameStart || quote == line.length() || line.charAt(quote) != '"') {
+            return;
+        }
+        StringBuilder value = new StringBuilder();
+        for (int i = quote + 1; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                value.append(line.charAt(++i));
+            } else if (c == '"') {
+                tags.put(line.substring(nameStart, nameEnd), value.toString());
+                return;
+            } else {
+                value.append(c);
+            }
+        }
+    }
+
+    private int skipSpaces(int i) {
+        while (i < line.length() && Character.isWhitespace(line.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
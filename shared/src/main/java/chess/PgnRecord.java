@@ -0,0 +1,134 @@
+package chess;
+
+import java.util.Map;
+
+/**
+ * One game read from a PGN file: its tag pairs, such as Event, White and Result, and its movetext, the moves in SAN
+ * along with any move numbers, comments, variations and result marker.
+ *
+ * @param tags     the tag pairs, by name, in the order they appeared.
+ * @param movetext the movetext, with line breaks kept so that ';' comments end where they should.
+ */
+public record PgnRecord(Map<String, String> tags, String movetext) {
+    /**
+     * @return the value of the given tag, or null if the record doesn't have it.
+     */
+    public String tag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * Plays the movetext's main line from the starting position, or from the position in the FEN tag if there is
+     * one. Comments, variations, move numbers and numeric annotations are skipped. A decisive result that the moves
+     * don't reach by checkmate is recorded as a resignation by the losing side; draws leave the game in progress.
+     *
+     * @return the game after its last move.
+     * @throws InvalidMoveException     if a move is not legal, or not valid SAN.
+     * @throws IllegalArgumentException if the FEN tag is malformed.
+     */
+    public ChessGame play() throws InvalidMoveException {
+        String fen = tag("FEN");
+        ChessGame game = fen != null ? Fen.parseGame(fen) : new ChessGame();
+        String result = tag("Result");
+
+        String text = movetext;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '{') {
+                i = skipPast(text, i, '}');
+            } else if (c == ';') {
+                i = skipPast(text, i, '\n');
+            } else if (c == '(') {
+                i = skipVariation(text, i);
+            } else if (c == '$') {
+                i++;
+                while (i < length && Character.isDigit(text.charAt(i))) {
+                    i++;
+                }
+            } else {
+                int end = i;
+                while (end < length && !isTokenEnd(text.charAt(end))) {
+                    end++;
+                }
+                if (isResult(text, i, end)) {
+                    result = text.substring(i, end);
+                } else {
+                    int moveStart = skipMoveNumber(text, i, end);
+                    if (moveStart < end) {
+                        game.makeMove(PackedMove.toChessMove(San.parse(game, text, moveStart, end)));
+                    }
+                }
+                i = end;
+            }
+        }
+
+        if (game.getWinState() == WinState.IN_PROGRESS) {
+            if ("1-0".equals(result)) {
+                game.resign(ChessGame.TeamColor.BLACK);
+            } else if ("0-1".equals(result)) {
+                game.resign(ChessGame.TeamColor.WHITE);
+            }
+        }
+        return game;
+    }
+
+    private static int skipPast(String text, int i, char end) {
+        int index = text.indexOf(end, i + 1);
+        return index < 0 ? text.length() : index + 1;
+    }
+
+    private static int skipVariation(String text, int i) {
+        int depth = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            // Comments may contain parentheses that don't count
+            if (c == '{') {
+                i = skipPast(text, i, '}');
+                continue;
+            }
+            if (c == ';') {
+                i = skipPast(text, i, '\n');
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the index just past a leading move number such as "12." or "12...", or start if there isn't one.
+     */
+    private static int skipMoveNumber(String text, int start, int end) {
+        int i = start;
+        while (i < end && Character.isDigit(text.charAt(i))) {
+            i++;
+        }
+        if (i == start || i == end || text.charAt(i) != '.') {
+            return i == end ? end : start;
+        }
+        while (i < end && text.charAt(i) == '.') {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isTokenEnd(char c) {
+        return Character.isWhitespace(c) || c == '{' || c == '(' || c == ';' || c == '$';
+    }
+
+    private static boolean isResult(String text, int start, int end) {
+        return text.startsWith("1-0", start) && end - start == 3
+                || text.startsWith("0-1", start) && end - start == 3
+                || text.startsWith("1/2-1/2", start) && end - start == 7
+                || text.charAt(start) == '*' && end - start == 1;
+    }
+}
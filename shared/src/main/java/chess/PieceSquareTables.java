@@ -0,0 +1,174 @@
+package chess;
+
+/**
+ * Material values and piece-square tables for evaluating positions. Each piece is worth its material value plus a
+ * bonus for the square it stands on, with separate bonuses for the middlegame and the endgame: a king should hide in
+ * the middlegame but come out in the endgame, and a pawn grows more valuable as it nears promotion.
+ * <p>
+ * The game phase says how far between the two a position is. Each knight and bishop adds 1, each rook 2 and each
+ * queen 4, so the starting position has {@link #MAX_PHASE} and a bare pawn ending has 0. An evaluator blends the two
+ * scores in proportion to the phase ("tapering"), so that the score doesn't jump when a piece is traded off.
+ * <p>
+ * {@link ChessBoard} keeps the sums of these values up to date as pieces are added, removed and moved, so reading
+ * them costs nothing. All scores are in centipawns and are signed from white's point of view.
+ */
+public final class PieceSquareTables {
+    public static final int PAWN_VALUE = 100;
+    public static final int KNIGHT_VALUE = 320;
+    public static final int BISHOP_VALUE = 330;
+    public static final int ROOK_VALUE = 500;
+    public static final int QUEEN_VALUE = 900;
+
+    /**
+     * The game phase of a board with every piece on it. Boards with more pieces, such as after promotions, are
+     * capped at this phase.
+     */
+    public static final int MAX_PHASE = 24;
+
+    // Indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN
+    private static final int[] MATERIAL = {0, QUEEN_VALUE, BISHOP_VALUE, KNIGHT_VALUE, ROOK_VALUE, PAWN_VALUE};
+    private static final int[] PHASE = {0, 4, 1, 1, 2, 0};
+
+    // The tables below are laid out as white sees the board, rank 8 first, so row r column c is square (7-r)*8+c
+    private static final int[] KING_MIDDLEGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20,
+    };
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50,
+    };
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20,
+    };
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20,
+    };
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50,
+    };
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0,
+    };
+    private static final int[] PAWN_MIDDLEGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+    };
+    private static final int[] PAWN_ENDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            80, 80, 80, 80, 80, 80, 80, 80,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            30, 30, 30, 30, 30, 30, 30, 30,
+            20, 20, 20, 20, 20, 20, 20, 20,
+            10, 10, 10, 10, 10, 10, 10, 10,
+            10, 10, 10, 10, 10, 10, 10, 10,
+            0, 0, 0, 0, 0, 0, 0, 0,
+    };
+
+    // Indexed by piece index * 64 + square. Material included, and negated for black pieces.
+    private static final int[] MIDDLEGAME = new int[ChessPieces.PIECE_INDEX_COUNT * 64];
+    private static final int[] ENDGAME = new int[ChessPieces.PIECE_INDEX_COUNT * 64];
+
+    static {
+        int[][] middlegame = {KING_MIDDLEGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_MIDDLEGAME};
+        int[][] endgame = {KING_ENDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_ENDGAME};
+        for (int type = 0; type < 6; type++) {
+            for (int square = 0; square < 64; square++) {
+                int whiteRow = 7 - (square >>> 3);
+                // Black's tables are white's flipped top to bottom
+                int blackRow = square >>> 3;
+                int col = square & 7;
+                int white = type;
+                int black = 6 + type;
+                MIDDLEGAME[white * 64 + square] = MATERIAL[type] + middlegame[type][whiteRow * 8 + col];
+                ENDGAME[white * 64 + square] = MATERIAL[type] + endgame[type][whiteRow * 8 + col];
+                MIDDLEGAME[black * 64 + square] = -(MATERIAL[type] + middlegame[type][blackRow * 8 + col]);
+                ENDGAME[black * 64 + square] = -(MATERIAL[type] + endgame[type][blackRow * 8 + col]);
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    /**
+     * @return the value of a piece of the given type in centipawns. The king has no material value, since it can't
+     * be traded.
+     */
+    public static int materialValue(ChessPiece.PieceType type) {
+        return MATERIAL[type.ordinal()];
+    }
+
+    /**
+     * @return the middlegame value of a piece with the given {@link ChessPieces#index piece index} on the given
+     * square, material included, from white's point of view.
+     */
+    public static int middlegame(int pieceIndex, int square) {
+        return MIDDLEGAME[pieceIndex * 64 + square];
+    }
+
+    /**
+     * @return the endgame value of a piece with the given piece index on the given square, material included, from
+     * white's point of view.
+     */
+    public static int endgame(int pieceIndex, int square) {
+        return ENDGAME[pieceIndex * 64 + square];
+    }
+
+    /**
+     * @return how much a piece with the given piece index adds to the game phase.
+     */
+    public static int phase(int pieceIndex) {
+        return PHASE[ChessPieces.typeOfIndex(pieceIndex)];
+    }
+
+    static int materialValue(int pieceIndex) {
+        return MATERIAL[ChessPieces.typeOfIndex(pieceIndex)];
+    }
+}
@@ -0,0 +1,276 @@
+package chess;
+
+/**
+ * Reads and writes moves in Standard Algebraic Notation, such as "e4", "Nbd7", "exd6", "Qh4xe1+", "e8=Q" or
+ * "O-O-O". A SAN move only names the moving piece, its destination, and as much of its start square as is needed to
+ * tell it apart from other pieces of the same type, so it is resolved against the legal moves of the game it is
+ * played in.
+ * <p>
+ * When reading, trailing check, mate and annotation marks ("+", "#", "!", "?") are ignored, as is whether a capture
+ * is marked with "x". Castling may be written with the letter O or the digit 0. The text is read in place, without
+ * copying.
+ */
+public final class San {
+    // Only needed to tell check from mate, so one per thread is reused rather than allocating one per move
+    private static final ThreadLocal<MoveGenerator> GENERATORS = ThreadLocal.withInitial(MoveGenerator::new);
+
+    private San() {
+    }
+
+    /**
+     * Resolves a SAN move in the given game's current position.
+     *
+     * @throws InvalidMoveException if the text is not a legal move for the team whose turn it is, or if it could
+     *                              mean more than one legal move.
+     */
+    public static ChessMove parse(ChessGame game, CharSequence san) throws InvalidMoveException {
+        return PackedMove.toChessMove(parse(game, san, 0, san.length()));
+    }
+
+    /**
+     * Resolves the SAN move in characters [start, end) of the given text.
+     *
+     * @return the matching legal move, as a packed move.
+     * @throws InvalidMoveException if the text is not exactly one legal move.
+     */
+    static int parse(ChessGame game, CharSequence text, int start, int end) throws InvalidMoveException {
+        while (end > start && isSuffixMark(text.charAt(end - 1))) {
+            end--;
+        }
+        int moveStart = start;
+        int moveEnd = end;
+        if (end - start < 2) {
+            throw invalid(text, moveStart, moveEnd);
+        }
+
+        int[] legalMoves = game.legalPackedMoves();
+        int castleSide = castleSide(text, start, end);
+        if (castleSide != 0) {
+            return findCastle(game, legalMoves, castleSide, text, start, end);
+        }
+
+        ChessPiece.PieceType type = pieceType(text.charAt(start));
+        if (type != null) {
+            start++;
+        } else {
+            type = ChessPiece.PieceType.PAWN;
+        }
+
+        ChessPiece.PieceType promotion = pieceType(text.charAt(end - 1));
+        if (promotion != null) {
+            end--;
+            if (end > start && text.charAt(end - 1) == '=') {
+                end--;
+            }
+        }
+
+        if (end - start < 2) {
+            throw invalid(text, moveStart, moveEnd);
+        }
+        int toColumn = fileOf(text.charAt(end - 2));
+        int toRow = rankOf(text.charAt(end - 1));
+        if (toColumn == 0 || toRow == 0) {
+            throw invalid(text, moveStart, moveEnd);
+        }
+        end -= 2;
+
+        // Whatever is left between the piece and the destination narrows down the start square
+        int fromColumn = 0;
+        int fromRow = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (fileOf(c) != 0 && fromColumn == 0) {
+                fromColumn = fileOf(c);
+            } else if (rankOf(c) != 0 && fromRow == 0) {
+                fromRow = rankOf(c);
+            } else if (c != 'x' && c != ':' && c != '-') {
+                throw invalid(text, moveStart, moveEnd);
+            }
+        }
+
+        int to = ChessPositions.index(toRow, toColumn);
+        ChessBoard board = game.getBoard();
+        int match = PackedMove.NONE;
+        for (int move : legalMoves) {
+            int from = PackedMove.from(move);
+            if (PackedMove.to(move) != to || PackedMove.promotionPiece(move) != promotion
+                    || board.getPiece(from).getPieceType() != type
+                    || fromColumn != 0 && ChessPositions.column(from) != fromColumn
+                    || fromRow != 0 && ChessPositions.row(from) != fromRow) {
+                continue;
+            }
+            if (match != PackedMove.NONE) {
+                throw new InvalidMoveException("Ambiguous move: " + text.subSequence(moveStart, moveEnd));
+            }
+            match = move;
+        }
+        if (match == PackedMove.NONE) {
+            throw new InvalidMoveException("Not a legal move: " + text.subSequence(moveStart, moveEnd));
+        }
+        return match;
+    }
+
+    /**
+     * Writes a move in SAN for the given game's current position, with no more of the start square than is needed to
+     * tell it apart, and a "+" or "#" if it gives check or checkmate.
+     *
+     * @throws InvalidMoveException if the move is not legal for the team whose turn it is.
+     */
+    public static String format(ChessGame game, ChessMove move) throws InvalidMoveException {
+        int requested = PackedMove.fromChessMove(move);
+        int[] legalMoves = game.legalPackedMoves();
+        for (int legalMove : legalMoves) {
+            if (PackedMove.sameMove(legalMove, requested)) {
+                return format(game, legalMoves, legalMove);
+            }
+        }
+        throw new InvalidMoveException("Not a legal move: " + move);
+    }
+
+    /**
+     * Writes a legal move in SAN.
+     *
+     * @param legalMoves every legal move in the game's current position, used for disambiguation.
+     * @param move       the move to write, as generated, with its flags.
+     */
+    static String format(ChessGame game, int[] legalMoves, int move) {
+        ChessBoard board = game.getBoard();
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        StringBuilder builder = new StringBuilder(8);
+        if (PackedMove.hasFlag(move, PackedMove.CASTLE)) {
+            builder.append(to > from ? "O-O" : "O-O-O");
+        } else {
+            ChessPiece.PieceType type = board.getPiece(from).getPieceType();
+            boolean capture = PackedMove.hasFlag(move, PackedMove.CAPTURE);
+            if (type == ChessPiece.PieceType.PAWN) {
+                if (capture) {
+                    builder.append(ChessPositions.name(from).charAt(0));
+                }
+            } else {
+                builder.append(ChessPieces.symbol(type, ChessGame.TeamColor.WHITE));
+                appendDisambiguation(board, legalMoves, move, type, builder);
+            }
+            if (capture) {
+                builder.append('x');
+            }
+            builder.append(ChessPositions.name(to));
+            ChessPiece.PieceType promotion = PackedMove.promotionPiece(move);
+            if (promotion != null) {
+                builder.append('=').append(ChessPieces.symbol(promotion, ChessGame.TeamColor.WHITE));
+            }
+        }
+        appendCheck(board, game.getTeamTurn(), move, builder);
+        return builder.toString();
+    }
+
+    private static void appendDisambiguation(ChessBoard board, int[] legalMoves, int move, ChessPiece.PieceType type,
+                                             StringBuilder builder) {
+        int from = PackedMove.from(move);
+        boolean ambiguous = false;
+        boolean sharesColumn = false;
+        boolean sharesRow = false;
+        for (int other : legalMoves) {
+            int otherFrom = PackedMove.from(other);
+            if (otherFrom == from || PackedMove.to(other) != PackedMove.to(move)
+                    || board.getPiece(otherFrom).getPieceType() != type) {
+                continue;
+            }
+            ambiguous = true;
+            sharesColumn |= ChessPositions.column(otherFrom) == ChessPositions.column(from);
+            sharesRow |= ChessPositions.row(otherFrom) == ChessPositions.row(from);
+        }
+        if (!ambiguous) {
+            return;
+        }
+        String fromName = ChessPositions.name(from);
+        if (!sharesColumn) {
+            builder.append(fromName.charAt(0));
+        } else if (!sharesRow) {
+            builder.append(fromName.charAt(1));
+        } else {
+            builder.append(fromName);
+        }
+    }
+
+    private static void appendCheck(ChessBoard board, ChessGame.TeamColor mover, int move, StringBuilder builder) {
+        ChessGame.TeamColor opponent = ChessPieces.not(mover);
+        // Play the move on a copy, so that the caller's board is only ever read, even by other threads
+        ChessBoard after = board.copy();
+        after.makeMove(move);
+        int kingSquare = after.kingSquare(opponent);
+        if (kingSquare >= 0 && after.isSquareAttacked(kingSquare, mover)) {
+            MoveGenerator generator = GENERATORS.get();
+            generator.setPosition(after, opponent);
+            builder.append(generator.hasLegalMove() ? '+' : '#');
+        }
+    }
+
+    private static int findCastle(ChessGame game, int[] legalMoves, int side, CharSequence text, int start, int end)
+            throws InvalidMoveException {
+        for (int move : legalMoves) {
+            if (PackedMove.hasFlag(move, PackedMove.CASTLE)
+                    && Integer.signum(PackedMove.to(move) - PackedMove.from(move)) == side) {
+                return move;
+            }
+        }
+        throw new InvalidMoveException("Castling is not legal for " + game.getTeamTurn() + ": "
+                + text.subSequence(start, end));
+    }
+
+    /**
+     * @return 1 for kingside castling, -1 for queenside, or 0 if the text is not a castling move.
+     */
+    private static int castleSide(CharSequence text, int start, int end) {
+        char o = text.charAt(start);
+        if (o != 'O' && o != '0') {
+            return 0;
+        }
+        int length = end - start;
+        if (length != 3 && length != 5) {
+            return 0;
+        }
+        for (int i = start + 1; i < end; i += 2) {
+            if (text.charAt(i) != '-' || text.charAt(i + 1) != o) {
+                return 0;
+            }
+        }
+        return length == 3 ? 1 : -1;
+    }
+
+    /**
+     * @return the type named by an uppercase piece letter, or null if it isn't one.
+     */
+    static ChessPiece.PieceType pieceType(char c) {
+        return switch (c) {
+            case 'K' -> ChessPiece.PieceType.KING;
+            case 'Q' -> ChessPiece.PieceType.QUEEN;
+            case 'B' -> ChessPiece.PieceType.BISHOP;
+            case 'N' -> ChessPiece.PieceType.KNIGHT;
+            case 'R' -> ChessPiece.PieceType.ROOK;
+            default -> null;
+        };
+    }
+
+    /**
+     * @return the column 1-8 named by a file letter a-h, or 0 if it isn't one.
+     */
+    static int fileOf(char c) {
+        return c >= 'a' && c <= 'h' ? c - 'a' + 1 : 0;
+    }
+
+    /**
+     * @return the row 1-8 named by a rank digit, or 0 if it isn't one.
+     */
+    static int rankOf(char c) {
+        return c >= '1' && c <= '8' ? c - '0' : 0;
+    }
+
+    private static boolean isSuffixMark(char c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+
+    private static InvalidMoveException invalid(CharSequence text, int start, int end) {
+        return new InvalidMoveException("Not a SAN move: " + text.subSequence(start, end));
+    }
+}
@@ -0,0 +1,83 @@
+package chess;
+
+/**
+ * Reads and writes moves in the long algebraic notation used by the Universal Chess Interface: the start square,
+ * the end square, and a lowercase promotion piece if there is one, as in "e2e4", "e1g1" or "e7e8q". Unlike SAN, a UCI
+ * move can be read without knowing the position.
+ * <p>
+ * The text of every move without a promotion is built ahead of time, so {@link #format} does not allocate for them,
+ * and parsing hands out the shared ChessMoves from {@link PackedMove#toChessMove}.
+ */
+public final class Uci {
+    // Indexed by from * 64 + to
+    private static final String[] MOVE_NAMES = new String[64 * 64];
+
+    static {
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                MOVE_NAMES[from * 64 + to] = ChessPositions.name(from) + ChessPositions.name(to);
+            }
+        }
+    }
+
+    private Uci() {
+    }
+
+    public static String format(ChessMove move) {
+        return format(PackedMove.fromChessMove(move));
+    }
+
+    /**
+     * @param move a packed move. Any flags are ignored.
+     */
+    public static String format(int move) {
+        String name = MOVE_NAMES[PackedMove.from(move) * 64 + PackedMove.to(move)];
+        ChessPiece.PieceType promotion = PackedMove.promotionPiece(move);
+        if (promotion == null) {
+            return name;
+        }
+        return name + Character.toLowerCase(ChessPieces.symbol(promotion, ChessGame.TeamColor.WHITE));
+    }
+
+    /**
+     * Reads a UCI move without checking that it is legal in any position.
+     *
+     * @throws InvalidMoveException if the text is not a UCI move.
+     */
+    public static ChessMove parse(CharSequence text) throws InvalidMoveException {
+        return PackedMove.toChessMove(parsePacked(text));
+    }
+
+    /**
+     * Reads a UCI move and checks that it is legal in the given game's current position.
+     *
+     * @throws InvalidMoveException if the text is not a UCI move, or not a legal move for the team whose turn it is.
+     */
+    public static ChessMove parse(ChessGame game, CharSequence text) throws InvalidMoveException {
+        int requested = parsePacked(text);
+        for (int move : game.legalPackedMoves()) {
+            if (PackedMove.sameMove(move, requested)) {
+                return PackedMove.toChessMove(move);
+            }
+        }
+        throw new InvalidMoveException("Not a legal move: " + text);
+    }
+
+    private static int parsePacked(CharSequence text) throws InvalidMoveException {
+        int length = text.length();
+        if (length != 4 && length != 5) {
+            throw new InvalidMoveException("Not a UCI move: " + text);
+        }
+        int from = ChessPositions.parseSquare(text, 0);
+        int to = ChessPositions.parseSquare(text, 2);
+        ChessPiece.PieceType promotion = length == 5 ? San.pieceType(Character.toUpperCase(text.charAt(4))) : null;
+        if (from < 0 || to < 0 || from == to || length == 5 && !isPromotionPiece(promotion)) {
+            throw new InvalidMoveException("Not a UCI move: " + text);
+        }
+        return PackedMove.encode(from, to, promotion, 0);
+    }
+
+    private static boolean isPromotionPiece(ChessPiece.PieceType type) {
+        return type != null && ChessPieces.isValidPromotionPiece(type);
+    }
+}
@@ -0,0 +1,58 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * The history used by {@link ChessBoard#unmakeMove()}. Each entry holds the {@link PackedMove packed move} and the en
+ * passant square from before it, alongside references to the moving piece and the captured piece (if any). Moving a
+ * piece swaps in a different instance, so restoring the original moving piece reference undoes both its moved flag
+ * and any promotion. For castling moves, the captured piece slot holds the rook. The backing arrays only grow, so
+ * pushing and popping do not allocate once the stack has reached its working depth.
+ */
+final class UndoStack {
+    private int[] moves = new int[64];
+    private int[] enPassantSquares = new int[64];
+    private ChessPiece[] movedPieces = new ChessPiece[64];
+    private ChessPiece[] capturedPieces = new ChessPiece[64];
+    private int size;
+
+    void push(int move, ChessPiece movedPiece, ChessPiece capturedPiece, int enPassantSquare) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+            enPassantSquares = Arrays.copyOf(enPassantSquares, size * 2);
+            movedPieces = Arrays.copyOf(movedPieces, size * 2);
+            capturedPieces = Arrays.copyOf(capturedPieces, size * 2);
+        }
+        moves[size] = move;
+        enPassantSquares[size] = enPassantSquare;
+        movedPieces[size] = movedPiece;
+        capturedPieces[size] = capturedPiece;
+        size++;
+    }
+
+    void pop() {
+        size--;
+        movedPieces[size] = null;
+        capturedPieces[size] = null;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int move() {
+        return moves[size - 1];
+    }
+
+    int enPassantSquare() {
+        return enPassantSquares[size - 1];
+    }
+
+    ChessPiece movedPiece() {
+        return movedPieces[size - 1];
+    }
+
+    ChessPiece capturedPiece() {
+        return capturedPieces[size - 1];
+    }
+}
@@ -0,0 +1,66 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of one key for each piece on each square, plus keys
+ * for the side to move and for any castling or en passant rights. Because XOR is its own inverse, a key can be updated
+ * as pieces move by XORing out their old squares and XORing in their new ones.
+ * <p>
+ * The keys come from a fixed seed, so a position hashes to the same key in every run and on every machine.
+ */
+public final class Zobrist {
+    private static final long SEED = 0x2F6A_8C41_D93B_7E05L;
+
+    private static final long[][] PIECE_SQUARE = new long[ChessPieces.PIECE_INDEX_COUNT][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] squareKeys : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                squareKeys[square] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < CASTLING.length; i++) {
+            CASTLING[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT_FILE.length; i++) {
+            EN_PASSANT_FILE[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @return the key for a piece with the given {@link ChessPieces#index piece index} on the given square.
+     */
+    public static long pieceSquare(int pieceIndex, int square) {
+        return PIECE_SQUARE[pieceIndex][square];
+    }
+
+    /**
+     * @return the key for a set of castling rights, given as a 4-bit mask.
+     */
+    public static long castling(int castlingRights) {
+        return CASTLING[castlingRights];
+    }
+
+    /**
+     * @return the key for an en passant capture being possible on the given column (1-8).
+     */
+    public static long enPassantColumn(int col) {
+        return EN_PASSANT_FILE[col - 1];
+    }
+
+    /**
+     * @return the key XORed in when it is black's turn.
+     */
+    public static long sideToMove(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0;
+    }
+}
@@ -0,0 +1,15 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+
+/**
+ * Scores a position statically, without searching it. Called at every leaf of a search, so implementations should
+ * not allocate.
+ */
+public interface Evaluator {
+    /**
+     * @return the position's score in centipawns, from the point of view of the given side: positive if it is ahead.
+     */
+    int evaluate(ChessBoard board, ChessGame.TeamColor sideToMove);
+}
@@ -0,0 +1,149 @@
+package chess.engine;
+
+import chess.ChessGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Searches a position on several threads at once, using "Lazy SMP": every thread runs an ordinary {@link Search} of
+ * the same position, and they all share one {@link TranspositionTable}. The threads don't coordinate beyond that, but
+ * each one finds the table filled with results the others found, so together they search deeper than one thread
+ * would in the same time. Half of the helper threads start a ply deeper than the main thread, so that the threads
+ * don't all work on the same depth in the same order.
+ * <p>
+ * The number of threads is fixed when the LazySmpSearch is created, so a server can cap how much of the machine
+ * analysis takes. The calling thread runs the main search, and the rest run on the LazySmpSearch's own daemon
+ * threads. The result always comes from the main search; the helpers are stopped as soon as it finishes.
+ * <p>
+ * Searches on one LazySmpSearch run one at a time. Close it to release its threads.
+ */
+public final class LazySmpSearch implements AutoCloseable {
+    /**
+     * The default memory budget of the shared table.
+     */
+    public static final long DEFAULT_TABLE_BYTES = 16L << 20;
+
+    private static final AtomicInteger poolNumber = new AtomicInteger();
+
+    private final Search main;
+    private final Search[] helpers;
+    private final ExecutorService executor;
+    private final TranspositionTable table;
+    // Set once the main search finishes. Helpers may not have started yet, so Search.stop() could be missed
+    private final AtomicBoolean helpersStop = new AtomicBoolean();
+
+    /**
+     * @param threads the number of threads to search with, including the calling thread.
+     */
+    public LazySmpSearch(int threads) {
+        this(threads, MaterialEvaluator::new, DEFAULT_TABLE_BYTES);
+    }
+
+    /**
+     * @param threads    the number of threads to search with, including the calling thread.
+     * @param evaluators makes one Evaluator per thread, so that evaluators needn't be thread-safe.
+     * @param tableBytes the memory budget of the shared table.
+     * @throws IllegalArgumentException if threads is less than 1.
+     */
+    public LazySmpSearch(int threads, Supplier<? extends Evaluator> evaluators, long tableBytes) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A LazySmpSearch needs at least one thread, got " + threads);
+        }
+        this.table = new TranspositionTable(tableBytes);
+        this.main = new Search(evaluators.get(), table);
+        this.helpers = new Search[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new Search(evaluators.get(), table);
+            // Every other helper starts a ply ahead of the main thread
+            helpers[i].setFirstDepth(i % 2 == 0 ? 2 : 1);
+            helpers[i].setSharedStop(helpersStop);
+        }
+        this.executor = helpers.length == 0 ? null : Executors.newFixedThreadPool(helpers.length,
+                helperThreadFactory());
+    }
+
+    public int threads() {
+        return helpers.length + 1;
+    }
+
+    /**
+     * Searches the given game's current position for the team whose turn it is, on every thread.
+     *
+     * @param game   the game to search. It is not changed, and must not be changed by another thread until the
+     *               search returns.
+     * @param limits when to stop searching. The node limit applies to each thread separately.
+     * @return the main thread's result, with the node count of every thread added together.
+     */
+    public synchronized SearchResult search(ChessGame game, SearchLimits limits) {
+        helpersStop.set(false);
+        List<Future<SearchResult>> helperResults = new ArrayList<>(helpers.length);
+        for (Search helper : helpers) {
+            helperResults.add(executor.submit(() -> helper.search(game, limits)));
+        }
+
+        SearchResult result;
+        try {
+            result = main.search(game, limits);
+        } finally {
+            helpersStop.set(true);
+        }
+
+        long nodes = result.nodes();
+        try {
+            for (Future<SearchResult> helperResult : helperResults) {
+                nodes += helperResult.get().nodes();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A helper search failed", e.getCause());
+        }
+        return new SearchResult(result.bestMove(), result.score(), result.depth(), nodes,
+                result.principalVariation(), result.elapsedNanos());
+    }
+
+    /**
+     * Asks a running search to stop as soon as possible. Safe to call from any thread.
+     */
+    public void stop() {
+        main.stop();
+        helpersStop.set(true);
+    }
+
+    /**
+     * Forgets every stored result, for example before analysing an unrelated game.
+     */
+    public synchronized void clearTable() {
+        table.clear();
+    }
+
+    /**
+     * Stops any running search and shuts down the helper threads.
+     */
+    @Override
+    public void close() {
+        stop();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static ThreadFactory helperThreadFactory() {
+        int pool = poolNumber.incrementAndGet();
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "lazy-smp-" + pool + "-helper-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
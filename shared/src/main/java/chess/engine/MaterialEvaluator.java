@@ -0,0 +1,31 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.PieceSquareTables;
+
+/**
+ * Scores a position by counting material with conventional piece values.
+ */
+public final class MaterialEvaluator implements Evaluator {
+    public static final int PAWN_VALUE = PieceSquareTables.PAWN_VALUE;
+    public static final int KNIGHT_VALUE = PieceSquareTables.KNIGHT_VALUE;
+    public static final int BISHOP_VALUE = PieceSquareTables.BISHOP_VALUE;
+    public static final int ROOK_VALUE = PieceSquareTables.ROOK_VALUE;
+    public static final int QUEEN_VALUE = PieceSquareTables.QUEEN_VALUE;
+
+    /**
+     * @return the value of a piece of the given type in centipawns. The king has no material value, since it can't
+     * be traded.
+     */
+    public static int value(ChessPiece.PieceType type) {
+        return PieceSquareTables.materialValue(type);
+    }
+
+    @Override
+    public int evaluate(ChessBoard board, ChessGame.TeamColor sideToMove) {
+        int score = board.material(ChessGame.TeamColor.WHITE) - board.material(ChessGame.TeamColor.BLACK);
+        return sideToMove == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
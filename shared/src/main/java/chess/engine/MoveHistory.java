@@ -0,0 +1,116 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPieces;
+import chess.PackedMove;
+
+import java.util.Arrays;
+
+/**
+ * What a search has learned about which quiet moves tend to cause beta cutoffs, for ordering quiet moves in
+ * {@link MovePicker}. Three heuristics are kept, all in primitive arrays:
+ * <ul>
+ *     <li>Killer moves: the last two quiet moves that caused a cutoff at each ply. Sibling positions are often
+ *     refuted by the same move.</li>
+ *     <li>Countermoves: the quiet move that last refuted each move, indexed by the piece that moved and its
+ *     destination.</li>
+ *     <li>History: a score for each side's moves from each square to each square, raised every time the move causes
+ *     a cutoff, by more the deeper the cutoff.</li>
+ * </ul>
+ */
+public final class MoveHistory {
+    // Scores are halved once any reaches this, so that recent cutoffs keep counting for more than old ones
+    private static final int MAX_HISTORY = 1 << 20;
+
+    private final int[] killers = new int[Search.MAX_PLY * 2];
+    private final int[] countermoves = new int[ChessPieces.PIECE_INDEX_COUNT * 64];
+    private final int[] history = new int[2 * 64 * 64];
+
+    /**
+     * Gets ready for a new search: forgets the killer moves, which belong to the previous search's plies, and halves
+     * the history scores.
+     */
+    public void startSearch() {
+        Arrays.fill(killers, PackedMove.NONE);
+        ageHistory();
+    }
+
+    public void clear() {
+        Arrays.fill(killers, PackedMove.NONE);
+        Arrays.fill(countermoves, PackedMove.NONE);
+        Arrays.fill(history, 0);
+    }
+
+    /**
+     * Records that a quiet move caused a beta cutoff.
+     *
+     * @param board        the board the move was played on, in the position before the move.
+     * @param color        the color that played the move.
+     * @param move         the quiet move that caused the cutoff.
+     * @param ply          the ply the move was played at.
+     * @param previousMove the opponent's move that led to this position, or {@link PackedMove#NONE}.
+     * @param depth        the remaining depth the cutoff happened at.
+     */
+    public void recordCutoff(ChessBoard board, ChessGame.TeamColor color, int move, int ply, int previousMove,
+            int depth) {
+        if (killers[ply * 2] != move) {
+            killers[ply * 2 + 1] = killers[ply * 2];
+            killers[ply * 2] = move;
+        }
+        int countermoveIndex = countermoveIndex(board, previousMove);
+        if (countermoveIndex >= 0) {
+            countermoves[countermoveIndex] = move;
+        }
+        int index = historyIndex(color, move);
+        history[index] += depth * depth;
+        if (history[index] >= MAX_HISTORY) {
+            ageHistory();
+        }
+    }
+
+    /**
+     * @param slot 0 for the most recent killer move, 1 for the one before.
+     * @return the killer move in the given slot at the given ply, or {@link PackedMove#NONE}.
+     */
+    public int killer(int ply, int slot) {
+        return killers[ply * 2 + slot];
+    }
+
+    /**
+     * @param board        the board, in the position after the previous move.
+     * @param previousMove the opponent's move that led to this position, or {@link PackedMove#NONE}.
+     * @return the quiet move that last refuted the previous move, or {@link PackedMove#NONE}.
+     */
+    public int countermove(ChessBoard board, int previousMove) {
+        int index = countermoveIndex(board, previousMove);
+        return index < 0 ? PackedMove.NONE : countermoves[index];
+    }
+
+    /**
+     * @return the history score of the given move for the given color.
+     */
+    public int historyScore(ChessGame.TeamColor color, int move) {
+        return history[historyIndex(color, move)];
+    }
+
+    private void ageHistory() {
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 1;
+        }
+    }
+
+    private static int countermoveIndex(ChessBoard board, int previousMove) {
+        if (previousMove == PackedMove.NONE) {
+            return -1;
+        }
+        int to = PackedMove.to(previousMove);
+        ChessPiece piece = board.getPiece(to);
+        return piece == null ? -1 : ChessPieces.index(piece) * 64 + to;
+    }
+
+    private static int historyIndex(ChessGame.TeamColor color, int move) {
+        return color.ordinal() << 12 | PackedMove.from(move) << 6 | PackedMove.to(move);
+    }
+}
@@ -0,0 +1,262 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.MoveGenerator;
+import chess.MoveList;
+import chess.PackedMove;
+
+/**
+ * Hands out a position's legal moves one at a time, most promising first, generating them in stages so that a
+ * search which gets a cutoff early never pays for the rest:
+ * <ol>
+ *     <li>The hash move, usually from the {@link TranspositionTable}, checked for legality but otherwise not
+ *     generated at all.</li>
+ *     <li>Captures, most valuable victim first and, among equal victims, least valuable attacker first
+ *     ("MVV-LVA"), along with promotions to a queen that don't capture. A promotion counts as capturing the piece
+ *     it promotes to, so a quiet queen promotion ranks as a pawn taking a queen.</li>
+ *     <li>The two killer moves and the countermove from the {@link MoveHistory}, if they are legal quiet moves
+ *     here.</li>
+ *     <li>Every other quiet move, underpromotions included, highest history score first.</li>
+ * </ol>
+ * Quiet moves are only generated if the search gets as far as the last stage. No move is handed out twice.
+ * <p>
+ * Moves are kept in a {@link MoveList} with a parallel array of scores, and the best remaining move is selected as it
+ * is needed rather than sorting the whole list. A MovePicker does not allocate once constructed, and can be reused
+ * for any number of positions, but only by one thread at a time.
+ */
+public final class MovePicker {
+    private static final int HASH_MOVE = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int CAPTURES = 2;
+    private static final int FIRST_KILLER = 3;
+    private static final int SECOND_KILLER = 4;
+    private static final int COUNTERMOVE = 5;
+    private static final int GENERATE_QUIETS = 6;
+    private static final int QUIETS = 7;
+    private static final int DONE = 8;
+
+    // No position has more legal moves than this
+    private static final int MAX_MOVES = 256;
+    // Indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN. Bishops and knights rank as equals.
+    private static final int[] CAPTURE_RANK = {6, 5, 2, 2, 4, 1};
+
+    private final MoveGenerator generator = new MoveGenerator();
+    private final MoveHistory history;
+    private final MoveList moves = new MoveList(MAX_MOVES);
+    private final int[] scores = new int[MAX_MOVES];
+    private final MoveList pieceMoves = new MoveList(32);
+
+    private ChessBoard board;
+    private ChessGame.TeamColor color;
+    private int hashMove;
+    private int firstKiller;
+    private int secondKiller;
+    private int countermove;
+    private int stage;
+    private int next;
+
+    /**
+     * @param history where killer moves, countermoves and history scores come from.
+     */
+    public MovePicker(MoveHistory history) {
+        this.history = history;
+    }
+
+    /**
+     * Starts picking moves in a new position. Must be called again whenever the board changes, except for moves that
+     * are made and unmade again before the next call to {@link #next()}.
+     *
+     * @param board        the board to pick moves on.
+     * @param color        the color to pick moves for.
+     * @param hashMove     the move to try first, or {@link PackedMove#NONE}. It need not be legal.
+     * @param ply          the ply of the position in the search, for its killer moves.
+     * @param previousMove the opponent's move that led to this position, for its countermove, or
+     *                     {@link PackedMove#NONE}.
+     */
+    public void setPosition(ChessBoard board, ChessGame.TeamColor color, int hashMove, int ply, int previousMove) {
+        this.board = board;
+        this.color = color;
+        generator.setPosition(board, color);
+        this.hashMove = hashMove;
+        firstKiller = history.killer(ply, 0);
+        secondKiller = history.killer(ply, 1);
+        countermove = history.countermove(board, previousMove);
+        stage = HASH_MOVE;
+    }
+
+    /**
+     * @return true if the side to move is in check.
+     */
+    public boolean isInCheck() {
+        return generator.isInCheck();
+    }
+
+    /**
+     * @return the next move to try, or {@link PackedMove#NONE} once every legal move has been handed out.
+     */
+    public int next() {
+        while (true) {
+            switch (stage) {
+                case HASH_MOVE -> {
+                    stage = GENERATE_CAPTURES;
+                    if (isLegal(hashMove)) {
+                        return hashMove;
+                    }
+                }
+                case GENERATE_CAPTURES -> {
+                    moves.clear();
+                    generator.addLegalCaptures(moves);
+                    addQuietQueenPromotions();
+                    for (int i = 0; i < moves.size(); i++) {
+                        scores[i] = captureScore(moves.get(i));
+                    }
+                    next = 0;
+                    stage = CAPTURES;
+                }
+                case CAPTURES -> {
+                    while (next < moves.size()) {
+                        int move = pickBest(next++);
+                        if (move != hashMove) {
+                            return move;
+                        }
+                    }
+                    stage = FIRST_KILLER;
+                }
+                case FIRST_KILLER -> {
+                    stage = SECOND_KILLER;
+                    if (firstKiller != hashMove && isLegalQuiet(firstKiller)) {
+                        return firstKiller;
+                    }
+                }
+                case SECOND_KILLER -> {
+                    stage = COUNTERMOVE;
+                    if (secondKiller != hashMove && secondKiller != firstKiller && isLegalQuiet(secondKiller)) {
+                        return secondKiller;
+                    }
+                }
+                case COUNTERMOVE -> {
+                    stage = GENERATE_QUIETS;
+                    if (countermove != hashMove && countermove != firstKiller && countermove != secondKiller
+                            && isLegalQuiet(countermove)) {
+                        return countermove;
+                    }
+                }
+                case GENERATE_QUIETS -> {
+                    moves.clear();
+                    generator.addLegalQuietMoves(moves);
+                    for (int i = 0; i < moves.size(); i++) {
+                        scores[i] = history.historyScore(color, moves.get(i));
+                    }
+                    next = 0;
+                    stage = QUIETS;
+                }
+                case QUIETS -> {
+                    while (next < moves.size()) {
+                        int move = pickBest(next++);
+                        if (move != hashMove && move != firstKiller && move != secondKiller && move != countermove
+                                && !isQuietQueenPromotion(move)) {
+                            return move;
+                        }
+                    }
+                    stage = DONE;
+                }
+                default -> {
+                    return PackedMove.NONE;
+                }
+            }
+        }
+    }
+
+    private void addQuietQueenPromotions() {
+        pieceMoves.clear();
+        generator.addLegalQuietPromotions(pieceMoves);
+        for (int i = 0; i < pieceMoves.size(); i++) {
+            int move = pieceMoves.get(i);
+            if (PackedMove.promotionPiece(move) == ChessPiece.PieceType.QUEEN) {
+                moves.add(move);
+            }
+        }
+    }
+
+    /**
+     * @return the MVV-LVA score of a capture or promotion: higher for more valuable victims, counting the promotion
+     * piece as a second victim, then for less valuable attackers.
+     */
+    private int captureScore(int move) {
+        int victimRank = 0;
+        if (PackedMove.hasFlag(move, PackedMove.EN_PASSANT)) {
+            // En passant captures land on an empty square, and always take a pawn
+            victimRank = CAPTURE_RANK[ChessPiece.PieceType.PAWN.ordinal()];
+        } else if (PackedMove.hasFlag(move, PackedMove.CAPTURE)) {
+            victimRank = CAPTURE_RANK[board.getPiece(PackedMove.to(move)).getPieceType().ordinal()];
+        }
+        if (PackedMove.isPromotion(move)) {
+            victimRank += CAPTURE_RANK[PackedMove.promotionPiece(move).ordinal()];
+        }
+        int attackerRank = CAPTURE_RANK[board.getPiece(PackedMove.from(move)).getPieceType().ordinal()];
+        return victimRank * 8 - attackerRank;
+    }
+
+    /**
+     * Quiet queen promotions are handed out with the captures, so they are not quiet moves as far as the later stages
+     * are concerned.
+     */
+    private boolean isLegalQuiet(int move) {
+        return !PackedMove.hasFlag(move, PackedMove.CAPTURE) && !isQuietQueenPromotion(move) && isLegal(move);
+    }
+
+    private static boolean isQuietQueenPromotion(int move) {
+        return !PackedMove.hasFlag(move, PackedMove.CAPTURE)
+                && PackedMove.promotionPiece(move) == ChessPiece.PieceType.QUEEN;
+    }
+
+    /**
+     * Checks a move that came from somewhere other than this position's move generation, such as another position
+     * with the same hash key, or a sibling position's killer move.
+     */
+    private boolean isLegal(int move) {
+        if (move == PackedMove.NONE) {
+            return false;
+        }
+        int from = PackedMove.from(move);
+        ChessPiece piece = board.getPiece(from);
+        if (piece == null || piece.getTeamColor() != color) {
+            return false;
+        }
+        pieceMoves.clear();
+        generator.addLegalMoves(from, pieceMoves);
+        for (int i = 0; i < pieceMoves.size(); i++) {
+            // Flags must match too, or a killer that captured nothing elsewhere could pass for a capture here
+            if (pieceMoves.get(i) == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int pickBest(int start) {
+        return pickBest(moves, scores, start);
+    }
+
+    /**
+     * Swaps the highest-scoring move from index start on into index start, along with its score, and returns it.
+     * Picking one move at a time is cheaper than sorting, since a cutoff often comes after the first few.
+     */
+    static int pickBest(MoveList moves, int[] scores, int start) {
+        int best = start;
+        for (int i = start + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        moves.set(best, moves.get(start));
+        moves.set(start, move);
+        int score = scores[best];
+        scores[best] = scores[start];
+        scores[start] = score;
+        return move;
+    }
+}
@@ -0,0 +1,409 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPieces;
+import chess.MoveGenerator;
+import chess.MoveList;
+import chess.PackedMove;
+import chess.Zobrist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Finds the best move in a position with a negamax alpha-beta search.
+ * <p>
+ * The search deepens iteratively, one ply at a time, until it reaches the depth, time or node limit in its
+ * {@link SearchLimits}. Each iteration searches the previous iteration's principal variation first, which makes the
+ * alpha-beta cutoffs much more effective. From {@link #ASPIRATION_MIN_DEPTH} on, each iteration also starts with a
+ * narrow window around the previous score, and widens it only if the score falls outside. An iteration cut short by
+ * the budget is thrown away, so the result always comes from a finished iteration.
+ * <p>
+ * Once the depth runs out, a quiescence search keeps playing captures until the position is quiet, so that a leaf is
+ * never scored in the middle of an exchange. It skips captures that {@link StaticExchange} judges to lose material,
+ * and tries the rest best exchange first.
+ * <p>
+ * Positions that repeat one seen earlier in the search line are scored as draws.
+ * <p>
+ * Results are kept in a {@link TranspositionTable}. A position already searched deeply enough returns its stored
+ * score without being searched again, and otherwise its stored best move is searched first. Several Searches can
+ * share one table, which is how {@link LazySmpSearch} spreads a search over threads.
+ * <p>
+ * Moves are handed out by a {@link MovePicker}: the previous principal variation's move or the stored best move
+ * first, then captures, then quiet moves ordered by the {@link MoveHistory} of earlier cutoffs.
+ * <p>
+ * A Search plays moves on its own copy of the board, so the game passed in is never changed. Like {@link chess.Perft},
+ * it keeps a {@link MovePicker}, {@link MoveGenerator} and {@link MoveList} for each ply, plus fixed arrays for the
+ * principal variation, so it does not allocate while searching. A Search can be reused for any number of searches,
+ * but only by one thread at a time.
+ */
+public final class Search {
+    /**
+     * The deepest ply a search can reach.
+     */
+    public static final int MAX_PLY = 64;
+
+    /**
+     * The score of delivering checkmate right away. Mates further off score less, by one per ply.
+     */
+    public static final int MATE_SCORE = 30_000;
+
+    /**
+     * The first depth searched with an aspiration window. Shallower scores swing too much to be worth guessing.
+     */
+    public static final int ASPIRATION_MIN_DEPTH = 4;
+
+    private static final int INFINITY = MATE_SCORE + 1;
+    private static final int ASPIRATION_WINDOW = 50;
+    // Checking the clock is relatively slow, so only do it this often
+    private static final int NODES_PER_TIME_CHECK = 1024;
+    // No position has more legal moves than this
+    private static final int MAX_MOVES = 256;
+
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+    private final MoveGenerator[] generators = new MoveGenerator[MAX_PLY];
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final MoveHistory history = new MoveHistory();
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY];
+    private final int[] playedMoves = new int[MAX_PLY];
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    private final int[] previousPv = new int[MAX_PLY];
+    private final long[] keys = new long[MAX_PLY + 1];
+    private final int[][] moveScores = new int[MAX_PLY][];
+    private final StaticExchange staticExchange = new StaticExchange();
+
+    private ChessBoard board;
+    private int previousPvLength;
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+    private boolean canAbort;
+    private boolean aborted;
+    private volatile boolean stopRequested;
+    private int firstDepth = 1;
+    private AtomicBoolean sharedStop;
+
+    public Search() {
+        this(new MaterialEvaluator());
+    }
+
+    public Search(Evaluator evaluator) {
+        this(evaluator, new TranspositionTable());
+    }
+
+    /**
+     * @param table the table to keep results in. It may be shared with other Searches, including ones running on
+     *              other threads.
+     */
+    public Search(Evaluator evaluator, TranspositionTable table) {
+        this.evaluator = evaluator;
+        this.table = table;
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            generators[ply] = new MoveGenerator();
+            moveLists[ply] = new MoveList();
+            moveScores[ply] = new int[MAX_MOVES];
+            pickers[ply] = new MovePicker(history);
+        }
+    }
+
+    /**
+     * Searches the given game's current position for the team whose turn it is.
+     *
+     * @param game   the game to search. It is not changed.
+     * @param limits when to stop searching.
+     * @return the best move found, with its score and principal variation.
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        long start = System.nanoTime();
+        board = game.getBoard().copy();
+        ChessGame.TeamColor sideToMove = game.getTeamTurn();
+        nodes = 0;
+        maxNodes = limits.maxNodes() == 0 ? Long.MAX_VALUE : limits.maxNodes();
+        deadline = limits.maxMillis() == 0 ? Long.MAX_VALUE : start + limits.maxMillis() * 1_000_000;
+        // Only a main search must finish its first iteration; a helper's result is never used, so it stops at once
+        canAbort = sharedStop != null;
+        aborted = false;
+        stopRequested = false;
+        previousPvLength = 0;
+        history.startSearch();
+        keys[0] = positionKey(sideToMove);
+
+        int bestScore = 0;
+        int completedDepth = 0;
+        for (int depth = Math.min(firstDepth, limits.maxDepth()); depth <= limits.maxDepth(); depth++) {
+            int score = searchWithAspiration(depth, bestScore, sideToMove);
+            if (aborted) {
+                break;
+            }
+            bestScore = score;
+            completedDepth = depth;
+            previousPvLength = pvLength[0];
+            System.arraycopy(pv[0], 0, previousPv, 0, previousPvLength);
+            // A main search always finishes its first iteration, so that there is a move to return
+            canAbort = true;
+            if (Math.abs(score) > MATE_SCORE - depth) {
+                // A mate within this depth can't be improved on by searching deeper
+                break;
+            }
+        }
+
+        List<ChessMove> principalVariation = new ArrayList<>(previousPvLength);
+        for (int i = 0; i < previousPvLength; i++) {
+            principalVariation.add(PackedMove.toChessMove(previousPv[i]));
+        }
+        ChessMove bestMove = principalVariation.isEmpty() ? null : principalVariation.get(0);
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, List.copyOf(principalVariation),
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Asks a running search to stop as soon as possible. Safe to call from any thread. The search still returns the
+     * result of its last finished iteration.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Sets the depth iterative deepening starts from, 1 by default. Helper threads of a {@link LazySmpSearch} start
+     * deeper, so that they reach different depths than the main thread at the same time.
+     */
+    void setFirstDepth(int firstDepth) {
+        this.firstDepth = firstDepth;
+    }
+
+    /**
+     * Makes this Search also stop whenever the given flag is set. Unlike {@link #stop()}, the flag is never cleared
+     * by the search itself, so it can be set before the search has even started.
+     */
+    void setSharedStop(AtomicBoolean sharedStop) {
+        this.sharedStop = sharedStop;
+    }
+
+    private int searchWithAspiration(int depth, int previousScore, ChessGame.TeamColor sideToMove) {
+        if (depth < ASPIRATION_MIN_DEPTH || Math.abs(previousScore) > MATE_SCORE - MAX_PLY) {
+            return negamax(depth, -INFINITY, INFINITY, 0, sideToMove, true);
+        }
+        int delta = ASPIRATION_WINDOW;
+        int alpha = previousScore - delta;
+        int beta = previousScore + delta;
+        while (true) {
+            int score = negamax(depth, alpha, beta, 0, sideToMove, true);
+            if (aborted) {
+                return score;
+            }
+            if (score <= alpha) {
+                alpha = Math.max(-INFINITY, alpha - delta);
+            } else if (score >= beta) {
+                beta = Math.min(INFINITY, beta + delta);
+            } else {
+                return score;
+            }
+            delta *= 2;
+        }
+    }
+
+    /**
+     * @param onPv true if every move leading here was the previous iteration's principal variation, in which case
+     *             that variation's next move is searched first.
+     * @return the score of the position from the point of view of the given color. Fails soft: the score may lie
+     * outside [alpha, beta], bounding the true score from that side.
+     */
+    private int negamax(int depth, int alpha, int beta, int ply, ChessGame.TeamColor color, boolean onPv) {
+        pvLength[ply] = 0;
+        if (shouldAbort()) {
+            return 0;
+        }
+        if (ply > 0 && isRepetition(ply)) {
+            nodes++;
+            return 0;
+        }
+        if (depth <= 0) {
+            return quiescence(alpha, beta, ply, color);
+        }
+        nodes++;
+        if (ply >= MAX_PLY - 1) {
+            return evaluator.evaluate(board, color);
+        }
+
+        long entry = table.probe(keys[ply]);
+        int hashMove = PackedMove.NONE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            // The principal variation is never cut short, so that it can be played out in full
+            if (!onPv && TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER_BOUND && score >= beta
+                        || bound == TranspositionTable.UPPER_BOUND && score <= alpha) {
+                    return score;
+                }
+            }
+        }
+
+        boolean pvMoveKnown = onPv && ply < previousPvLength;
+        if (pvMoveKnown) {
+            hashMove = previousPv[ply];
+        }
+        int previousMove = ply == 0 ? PackedMove.NONE : playedMoves[ply - 1];
+        MovePicker picker = pickers[ply];
+        picker.setPosition(board, color, hashMove, ply, previousMove);
+
+        ChessGame.TeamColor opponent = ChessPieces.not(color);
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = PackedMove.NONE;
+        int movesSearched = 0;
+        for (int move = picker.next(); move != PackedMove.NONE; move = picker.next()) {
+            board.makeMove(move);
+            keys[ply + 1] = positionKey(opponent);
+            playedMoves[ply] = move;
+            boolean childOnPv = pvMoveKnown && movesSearched == 0 && move == previousPv[ply];
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1, opponent, childOnPv);
+            board.unmakeMove();
+            movesSearched++;
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        if (!PackedMove.hasFlag(move, PackedMove.CAPTURE)) {
+                            history.recordCutoff(board, color, move, ply, previousMove, depth);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        if (movesSearched == 0) {
+            return picker.isInCheck() ? -(MATE_SCORE - ply) : 0;
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        table.store(keys[ply], bestMove, TranspositionTable.scoreToTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Searches only captures, until the position is quiet. The side to move may "stand pat" instead of capturing, so
+     * the position's static score is a lower bound on its score. A side in check can't stand pat, so it searches
+     * every evasion instead.
+     *
+     * @return the score of the position from the point of view of the given color. Fails soft, like negamax.
+     */
+    private int quiescence(int alpha, int beta, int ply, ChessGame.TeamColor color) {
+        if (shouldAbort()) {
+            return 0;
+        }
+        nodes++;
+        if (ply >= MAX_PLY - 1) {
+            return evaluator.evaluate(board, color);
+        }
+
+        MoveGenerator generator = generators[ply];
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        generator.setPosition(board, color);
+        boolean inCheck = generator.isInCheck();
+        int bestScore;
+        if (inCheck) {
+            generator.addLegalMoves(moves);
+            if (moves.isEmpty()) {
+                return -(MATE_SCORE - ply);
+            }
+            bestScore = -INFINITY;
+        } else {
+            bestScore = evaluator.evaluate(board, color);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            alpha = Math.max(alpha, bestScore);
+            generator.addLegalCaptures(moves);
+        }
+
+        // Score every move by its exchange, dropping losing captures unless escaping check
+        int[] scores = moveScores[ply];
+        int count = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score = PackedMove.hasFlag(move, PackedMove.CAPTURE) ? staticExchange.evaluate(board, move) : 0;
+            if (score >= 0 || inCheck) {
+                moves.set(count, move);
+                scores[count++] = score;
+            }
+        }
+        moves.truncate(count);
+
+        ChessGame.TeamColor opponent = ChessPieces.not(color);
+        for (int i = 0; i < count; i++) {
+            int move = MovePicker.pickBest(moves, scores, i);
+            board.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1, opponent);
+            board.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    private boolean shouldAbort() {
+        if (aborted) {
+            return true;
+        }
+        if (!canAbort) {
+            return false;
+        }
+        if (nodes >= maxNodes || stopRequested || sharedStop != null && sharedStop.get()
+                || nodes % NODES_PER_TIME_CHECK == 0 && System.nanoTime() - deadline > 0) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    private boolean isRepetition(int ply) {
+        // A position can only recur with the same side to move
+        for (int earlier = ply - 2; earlier >= 0; earlier -= 2) {
+            if (keys[earlier] == keys[ply]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long positionKey(ChessGame.TeamColor sideToMove) {
+        return board.hashKey() ^ Zobrist.sideToMove(sideToMove);
+    }
+
+    private void updatePv(int ply, int move) {
+        int[] line = pv[ply];
+        line[0] = move;
+        // Moves are only searched below MAX_PLY - 1, so there is always a child ply to copy from
+        int childLength = pvLength[ply + 1];
+        System.arraycopy(pv[ply + 1], 0, line, 1, childLength);
+        pvLength[ply] = childLength + 1;
+    }
+}
@@ -0,0 +1,34 @@
+package chess.engine;
+
+/**
+ * Bounds on how long a {@link Search} may run. The search stops at whichever bound it reaches first, but a main
+ * search always finishes its first iteration so that it has a move to return. The helper searches of a
+ * {@link LazySmpSearch} make no such promise, and stop as soon as they are told to.
+ *
+ * @param maxDepth  the deepest iteration to search, in plies.
+ * @param maxMillis the wall-clock time budget in milliseconds, or 0 for no time limit.
+ * @param maxNodes  the node budget, or 0 for no node limit.
+ */
+public record SearchLimits(int maxDepth, long maxMillis, long maxNodes) {
+    public SearchLimits {
+        if (maxDepth < 1 || maxDepth >= Search.MAX_PLY) {
+            throw new IllegalArgumentException("Search depth must be between 1 and " + (Search.MAX_PLY - 1)
+                    + ", got " + maxDepth);
+        }
+        if (maxMillis < 0 || maxNodes < 0) {
+            throw new IllegalArgumentException("Search budgets can't be negative");
+        }
+    }
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0, 0);
+    }
+
+    public static SearchLimits millis(long maxMillis) {
+        return new SearchLimits(Search.MAX_PLY - 1, maxMillis, 0);
+    }
+
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(Search.MAX_PLY - 1, 0, maxNodes);
+    }
+}
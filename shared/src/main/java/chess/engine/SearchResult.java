@@ -0,0 +1,38 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+import java.util.List;
+
+/**
+ * The outcome of a {@link Search}: the best move found by the deepest iteration that finished.
+ *
+ * @param bestMove           the move to play, or null if the side to move has no legal moves.
+ * @param score              the position's score in centipawns from the point of view of the side to move, or a
+ *                           mate score (see {@link #isMate()}).
+ * @param depth              the depth of the last finished iteration.
+ * @param nodes              the number of positions visited, across every iteration.
+ * @param principalVariation the line of best play the score is based on, starting with bestMove.
+ * @param elapsedNanos       how long the search took.
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes, List<ChessMove> principalVariation,
+                           long elapsedNanos) {
+    /**
+     * @return true if the score is a forced mate, for either side.
+     */
+    public boolean isMate() {
+        return Math.abs(score) > Search.MATE_SCORE - Search.MAX_PLY;
+    }
+
+    /**
+     * @return the number of moves (not plies) until mate: positive if the side to move mates, negative if it is
+     * mated, or 0 if the score isn't a mate.
+     */
+    public int mateInMoves() {
+        if (!isMate()) {
+            return 0;
+        }
+        int plies = Search.MATE_SCORE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies / 2);
+    }
+}
@@ -0,0 +1,107 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPieces;
+import chess.PackedMove;
+import chess.PieceSquareTables;
+
+/**
+ * Static exchange evaluation: works out what a capture wins or loses once every piece attacking the target square
+ * has had its chance to recapture, without making any moves on the board.
+ * <p>
+ * Both sides recapture with their least valuable attacker first, and either side may stop capturing whenever
+ * carrying on would lose material. Removing each capturer from the occupancy reveals any slider lined up behind it,
+ * so batteries are counted. Pins are ignored, and a pawn recapturing on the last row is not promoted, so the result
+ * is an estimate, but a cheap and usually accurate one.
+ * <p>
+ * A StaticExchange keeps a scratch array and does not allocate, so it should be reused, but only by one thread at a
+ * time.
+ */
+public final class StaticExchange {
+    // High enough that no exchange is worth giving up the king for
+    private static final int KING_VALUE = 20_000;
+    private static final ChessPiece.PieceType[] CHEAPEST_FIRST = {ChessPiece.PieceType.PAWN,
+            ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING};
+
+    // One entry per capture in the sequence; each side can make at most 16
+    private final int[] gains = new int[33];
+
+    /**
+     * Evaluates the exchange started by the given move.
+     *
+     * @param board the board to evaluate the move on. It is not changed.
+     * @param move  a packed move, usually a capture, for the piece on its start square. A quiet move scores 0 if
+     *              the piece can't be won on its destination, or less if it can.
+     * @return the material the moving side gains from the exchange, in centipawns. Negative for a losing capture.
+     */
+    public int evaluate(ChessBoard board, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece mover = board.getPiece(from);
+        ChessPiece target = board.getPiece(to);
+
+        long occupied = board.occupied() & ~(1L << from);
+        int gain = target == null ? 0 : value(target.getPieceType());
+        int onSquare = value(mover.getPieceType());
+        if (mover.getPieceType() == ChessPiece.PieceType.PAWN && to == board.enPassantSquare()) {
+            int victimSquare = (from & ~7) | (to & 7);
+            occupied &= ~(1L << victimSquare);
+            gain = PieceSquareTables.PAWN_VALUE;
+        }
+        if (PackedMove.isPromotion(move)) {
+            onSquare = value(PackedMove.promotionPiece(move));
+            gain += onSquare - PieceSquareTables.PAWN_VALUE;
+        }
+
+        int depth = 0;
+        gains[0] = gain;
+        ChessGame.TeamColor side = ChessPieces.not(mover.getTeamColor());
+        while (true) {
+            long attackers = board.attackersTo(to, side, occupied) & occupied;
+            if (attackers == 0) {
+                break;
+            }
+            ChessPiece.PieceType capturer = null;
+            long capturerBit = 0;
+            for (ChessPiece.PieceType type : CHEAPEST_FIRST) {
+                long ofType = attackers & board.pieces(side, type);
+                if (ofType != 0) {
+                    capturer = type;
+                    capturerBit = ofType & -ofType;
+                    break;
+                }
+            }
+
+            depth++;
+            // What the side to capture now would have gained if it captures and the exchange stops there
+            gains[depth] = onSquare - gains[depth - 1];
+            if (Math.max(-gains[depth - 1], gains[depth]) < 0) {
+                // Neither side can do better by carrying on
+                break;
+            }
+            onSquare = value(capturer);
+            occupied &= ~capturerBit;
+            side = ChessPieces.not(side);
+        }
+
+        // Each side either takes its capture or stops, whichever is better for it
+        for (; depth > 0; depth--) {
+            gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+        }
+        return gains[0];
+    }
+
+    /**
+     * @return true if the given capture loses material once the exchange plays out.
+     */
+    public boolean isLosingCapture(ChessBoard board, int move) {
+        return evaluate(board, move) < 0;
+    }
+
+    private static int value(ChessPiece.PieceType type) {
+        return type == ChessPiece.PieceType.KING ? KING_VALUE : PieceSquareTables.materialValue(type);
+    }
+}
@@ -0,0 +1,22 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.PieceSquareTables;
+
+/**
+ * Scores a position by material and piece placement, using the {@link PieceSquareTables}. The middlegame and endgame
+ * scores are blended by the game phase, so the score shifts smoothly from one to the other as pieces come off.
+ * <p>
+ * The board keeps both scores and the phase up to date as moves are made and unmade, so an evaluation is a handful of
+ * additions rather than a scan of the board.
+ */
+public final class TaperedEvaluator implements Evaluator {
+    @Override
+    public int evaluate(ChessBoard board, ChessGame.TeamColor sideToMove) {
+        int phase = board.gamePhase();
+        int score = (board.middlegameScore() * phase + board.endgameScore() * (PieceSquareTables.MAX_PHASE - phase))
+                / PieceSquareTables.MAX_PHASE;
+        return sideToMove == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,154 @@
+package chess.engine;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, lock-free table of search results by position key, shared by every thread of a search.
+ * <p>
+ * Each slot is two longs: the entry's data, and its key XORed with its data. A reader only accepts an entry if
+ * XORing the two gives back the key it asked for, so an entry torn by two threads writing the same slot at once is
+ * simply rejected as a miss, without any locking. Data and keys are accessed with opaque reads and writes, which are
+ * atomic per long but add no memory fences.
+ * <p>
+ * An entry's data packs a move, a score, the depth it was searched to, and whether the score is exact or only a
+ * bound. Use the static accessors to unpack it.
+ */
+public final class TranspositionTable {
+    /**
+     * The memory taken by one slot.
+     */
+    public static final int ENTRY_BYTES = 16;
+
+    public static final long DEFAULT_BUDGET_BYTES = 1L << 20;
+
+    /**
+     * The score is the position's exact score.
+     */
+    public static final int EXACT = 0;
+    /**
+     * The search failed high: the true score is at least this score.
+     */
+    public static final int LOWER_BOUND = 1;
+    /**
+     * The search failed low: the true score is at most this score.
+     */
+    public static final int UPPER_BOUND = 2;
+
+    // Data layout: bits 0-18 move, 19-34 score + 2^15, 35-42 depth, 43-44 bound, 45 set on every stored entry
+    private static final int SCORE_SHIFT = 19;
+    private static final int DEPTH_SHIFT = 35;
+    private static final int BOUND_SHIFT = 43;
+    private static final long MOVE_MASK = (1L << SCORE_SHIFT) - 1;
+    private static final long VALID = 1L << 45;
+    private static final int SCORE_OFFSET = 1 << 15;
+
+    private final AtomicLongArray checks;
+    private final AtomicLongArray data;
+    private final int indexMask;
+
+    public TranspositionTable() {
+        this(DEFAULT_BUDGET_BYTES);
+    }
+
+    /**
+     * @param budgetBytes the amount of memory the table may use.
+     * @throws IllegalArgumentException if the budget is too small to hold a single entry.
+     */
+    public TranspositionTable(long budgetBytes) {
+        long entries = budgetBytes / ENTRY_BYTES;
+        if (entries < 1) {
+            throw new IllegalArgumentException("Memory budget too small for a TranspositionTable: " + budgetBytes);
+        }
+        int slotCount = (int) Long.highestOneBit(Math.min(entries, 1 << 30));
+        this.checks = new AtomicLongArray(slotCount);
+        this.data = new AtomicLongArray(slotCount);
+        this.indexMask = slotCount - 1;
+    }
+
+    public int capacity() {
+        return data.length();
+    }
+
+    /**
+     * @return the data stored for the given key, or 0 if there is none.
+     */
+    public long probe(long key) {
+        int index = slotIndex(key);
+        long entry = data.getOpaque(index);
+        return (checks.getOpaque(index) ^ entry) == key ? entry : 0;
+    }
+
+    /**
+     * Stores a search result. A deeper result for the same position is only replaced by an exact score.
+     *
+     * @param move  the best move found, as a packed move, or {@link chess.PackedMove#NONE}.
+     * @param score the score, already adjusted with {@link #scoreToTable}.
+     * @param depth the remaining depth the position was searched to.
+     * @param bound {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}.
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = slotIndex(key);
+        long existing = data.getOpaque(index);
+        if (bound != EXACT && (checks.getOpaque(index) ^ existing) == key && depth(existing) > depth) {
+            return;
+        }
+        long entry = (move & MOVE_MASK) | (long) (score + SCORE_OFFSET) << SCORE_SHIFT
+                | (long) depth << DEPTH_SHIFT | (long) bound << BOUND_SHIFT | VALID;
+        data.setOpaque(index, entry);
+        checks.setOpaque(index, key ^ entry);
+    }
+
+    public void clear() {
+        for (int i = 0; i < data.length(); i++) {
+            data.setOpaque(i, 0);
+            checks.setOpaque(i, 0);
+        }
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & MOVE_MASK);
+    }
+
+    public static int score(long entry) {
+        return (int) (entry >>> SCORE_SHIFT & 0xFFFF) - SCORE_OFFSET;
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> BOUND_SHIFT & 0x3);
+    }
+
+    /**
+     * Converts a mate score from distance-from-root, as the search uses, to distance-from-this-position, so that it
+     * stays correct when the position is reached at a different ply.
+     */
+    public static int scoreToTable(int score, int ply) {
+        if (score > Search.MATE_SCORE - Search.MAX_PLY) {
+            return score + ply;
+        }
+        if (score < -(Search.MATE_SCORE - Search.MAX_PLY)) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Reverses {@link #scoreToTable} for a position reached at the given ply.
+     */
+    public static int scoreFromTable(int score, int ply) {
+        if (score > Search.MATE_SCORE - Search.MAX_PLY) {
+            return score - ply;
+        }
+        if (score < -(Search.MATE_SCORE - Search.MAX_PLY)) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    private int slotIndex(long key) {
+        return (int) (key ^ key >>> 32) & indexMask;
+    }
+}
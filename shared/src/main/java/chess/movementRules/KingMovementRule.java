@@ -1,46 +1,51 @@
 package chess.movementRules;
 
-import chess.ChessBoard;
-import chess.ChessGame;
-import chess.ChessMove;
-import chess.ChessPosition;
-
-import java.util.Collection;
-import java.util.LinkedList;
+import chess.*;
 
 public class KingMovementRule extends MovementRule {
 
     /**
-     * Calculates all the positions this chess piece can move to. Does not take into account moves that are illegal due
-     * to leaving the king in danger.
+     * Adds every move this King can make, including castling. Does not take into account moves that are illegal due
+     * to leaving the king in danger, except that castling is only added when the king is not in check and does not
+     * pass over or land on an attacked square.
      *
      * @param board      the current ChessBoard.
-     * @param myPosition this King's current position.
-     * @return a Collection of valid moves.
+     * @param square     this King's current square.
+     * @param targetMask a bitboard of allowed destination squares.
+     * @param moves      the MoveList to add moves to.
      */
     @Override
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> moves = new LinkedList<>();
-        ChessGame.TeamColor myColor = board.getPiece(myPosition).getTeamColor();
-        for (ChessPosition endPosition : getPotentialEndPositions(myPosition))
-            if (isValidEmptySpace(board, endPosition) || isValidCapturingSpace(board, myColor, endPosition)) {
-                moves.add(new ChessMove(myPosition, endPosition));
-            }
+    public void addMoves(ChessBoard board, int square, long targetMask, MoveList moves) {
+        long targets = Attacks.kingAttacks(square) & emptyOrEnemySquares(board, square) & targetMask;
+        addMovesToTargets(board, square, targets, moves);
 
-        return moves;
+        ChessGame.TeamColor color = board.getPiece(square).getTeamColor();
+        int rights = board.castlingRights();
+        if (square == CastlingRights.kingStart(color) && rights != CastlingRights.NONE) {
+            if ((rights & CastlingRights.kingside(color)) != 0) {
+                addCastleIfAllowed(board, square, square + 2, color, targetMask, moves);
+            }
+            if ((rights & CastlingRights.queenside(color)) != 0) {
+                addCastleIfAllowed(board, square, square - 2, color, targetMask, moves);
+            }
+        }
     }
 
-    private Collection<ChessPosition> getPotentialEndPositions(ChessPosition position) {
-        Collection<ChessPosition> positions = new LinkedList<>();
-        positions.add(shift(position, -1, -1));
-        positions.add(shift(position, -1, 0));
-        positions.add(shift(position, -1, 1));
-        positions.add(shift(position, 1, -1));
-        positions.add(shift(position, 1, 0));
-        positions.add(shift(position, 1, 1));
-        positions.add(shift(position, 0, -1));
-        positions.add(shift(position, 0, 1));
-        return positions;
+    private void addCastleIfAllowed(ChessBoard board, int from, int to, ChessGame.TeamColor color, long targetMask,
+            MoveList moves) {
+        if ((targetMask & 1L << to) == 0) {
+            return;
+        }
+        int rookFrom = CastlingRights.rookStart(to);
+        if ((Attacks.between(from, rookFrom) & board.occupied()) != 0) {
+            return;
+        }
+        ChessGame.TeamColor enemy = ChessPieces.not(color);
+        int passedSquare = CastlingRights.rookDestination(from, to);
+        if (board.isSquareAttacked(from, enemy) || board.isSquareAttacked(passedSquare, enemy)
+                || board.isSquareAttacked(to, enemy)) {
+            return;
+        }
+        moves.add(PackedMove.encode(from, to, PackedMove.CASTLE));
     }
-
 }
@@ -1,48 +1,23 @@
 package chess.movementRules;
 
+import chess.Attacks;
 import chess.ChessBoard;
-import chess.ChessGame;
-import chess.ChessMove;
-import chess.ChessPosition;
-
-import java.util.Collection;
-import java.util.LinkedList;
+import chess.MoveList;
 
 public class KnightMovementRule extends MovementRule {
 
     /**
-     * Calculates all the positions this chess piece can move to. Does not take into account moves that are illegal due
-     * to leaving the king in danger.
+     * Adds every move this Knight can make. Does not take into account moves that are illegal due to leaving the
+     * king in danger.
      *
      * @param board      the current ChessBoard.
-     * @param myPosition this Knight's current position.
-     * @return a Collection of valid moves.
+     * @param square     this Knight's current square.
+     * @param targetMask a bitboard of allowed destination squares.
+     * @param moves      the MoveList to add moves to.
      */
     @Override
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> moves = new LinkedList<>();
-        ChessGame.TeamColor color = board.getPiece(myPosition).getTeamColor();
-        for (ChessPosition endPosition : getPotentialEndPositions(myPosition))
-            if (isValidEmptySpace(board, endPosition) || isValidCapturingSpace(board, color, endPosition)) {
-                moves.add(new ChessMove(myPosition, endPosition));
-            }
-
-        return moves;
-    }
-
-    private Collection<ChessPosition> getPotentialEndPositions(ChessPosition position) {
-        Collection<ChessPosition> positions = new LinkedList<>();
-        positions.add(shift(position, 2, -1));
-        positions.add(shift(position, 2, 1));
-
-        positions.add(shift(position, 1, -2));
-        positions.add(shift(position, 1, 2));
-
-        positions.add(shift(position, -1, -2));
-        positions.add(shift(position, -1, 2));
-
-        positions.add(shift(position, -2, -1));
-        positions.add(shift(position, -2, 1));
-        return positions;
+    public void addMoves(ChessBoard board, int square, long targetMask, MoveList moves) {
+        long targets = Attacks.knightAttacks(square) & emptyOrEnemySquares(board, square) & targetMask;
+        addMovesToTargets(board, square, targets, moves);
     }
 }
@@ -2,84 +2,67 @@ package chess.movementRules;
 
 import chess.*;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 
 public abstract class MovementRule {
 
-    public abstract Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition);
+    /**
+     * A target mask that allows every destination square.
+     */
+    public static final long ALL_SQUARES = -1L;
 
     /**
-     * Returns a version of the given ChessPosition shifted by the given amounts towards the opposing side. Positive
-     * values shift up and right relative to the player who owns the piece.
+     * Calculates all the positions the piece at the given position can move to. Does not take into account moves that
+     * are illegal due to leaving the king in danger.
      *
-     * @param position the starting ChessPosition.
-     * @param color the color of the player who owns the piece.
-     * @param deltaRow the amount to shift the row.
-     * @param deltaCol the amount to shift the column.
-     * @return a shifted ChessPosition.
+     * @param board      the current ChessBoard.
+     * @param myPosition the position of the piece to move.
+     * @return a Collection of valid moves.
      */
-    protected ChessPosition shiftRelative(ChessPosition position, ChessGame.TeamColor color, int deltaRow,
-            int deltaCol) {
-        if (color == ChessGame.TeamColor.WHITE) {
-            return shift(position, deltaRow, deltaCol);
-        } else {
-            return shift(position, -deltaRow, -deltaCol);
+    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
+        MoveList moves = new MoveList(32);
+        addMoves(board, ChessPositions.index(myPosition), ALL_SQUARES, moves);
+
+        Collection<ChessMove> chessMoves = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            chessMoves.add(PackedMove.toChessMove(moves.get(i)));
         }
+        return chessMoves;
     }
 
     /**
-     * Returns a version of the given ChessPosition shifted by the given amounts. Positive values shift up and right
-     * relative to the white player.
+     * Adds a packed move to the given MoveList for every position the piece on the given square can move to. Does not
+     * take into account moves that are illegal due to leaving the king in danger.
      *
-     * @param position the starting ChessPosition.
-     * @param deltaRow the amount to shift the row.
-     * @param deltaCol the amount to shift the column.
-     * @return a shifted ChessPosition.
+     * @param board      the current ChessBoard.
+     * @param square     the square of the piece to move, as numbered by {@link ChessPositions}.
+     * @param targetMask a bitboard of allowed destination squares. Moves ending anywhere else are skipped.
+     * @param moves      the MoveList to add moves to.
      */
-    protected static ChessPosition shift(ChessPosition position, int deltaRow, int deltaCol) {
-        return new ChessPosition(position.getRow() + deltaRow, position.getColumn() + deltaCol);
-    }
+    public abstract void addMoves(ChessBoard board, int square, long targetMask, MoveList moves);
 
     /**
-     * Returns a Collection of all ChessMoves obtained by repeatedly applying the given RelativeChessMove to the given
-     * starting ChessPosition any number of times until an invalid move is made. Application stops when applying the
-     * RelativeChessMove again would land either outside the board, on an occupied space, or back on the start position
-     * (the start position is not included in the Collection). If the final move is a capture (one that ends on a space
-     * occupied by an enemy piece), it is included in the Collection, but counts as an end condition and the
-     * relativeMove is not applied again.
+     * Adds a packed move from the given square to each square set in the given bitboard, flagging captures.
      *
-     * @param board         the ChessBoard.
-     * @param startPosition the starting ChessPosition.
-     * @param relativeMove  the RelativeChessMove to apply to the startPosition.
-     * @return a Collection of ChessMoves made by repeatedly applying relativeMove.
+     * @param board   the current ChessBoard.
+     * @param from    the starting square.
+     * @param targets a bitboard of destination squares, none of which hold a teammate of the moving piece.
+     * @param moves   the MoveList to add moves to.
      */
-    protected Collection<ChessMove> getMovesFromRepeatedRelativeMove(ChessBoard board, ChessPosition startPosition, RelativeChessMove relativeMove) {
-        Collection<ChessMove> moves = new LinkedList<>();
-
-        ChessPosition currentEndPosition = relativeMove.apply(startPosition);
-
-        while (isValidEmptySpace(board, currentEndPosition) && !currentEndPosition.equals(startPosition)) {
-            moves.add(new ChessMove(startPosition, currentEndPosition));
-            currentEndPosition = relativeMove.apply(currentEndPosition);
+    protected static void addMovesToTargets(ChessBoard board, int from, long targets, MoveList moves) {
+        long occupied = board.occupied();
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            int flags = (occupied & 1L << to) != 0 ? PackedMove.CAPTURE : 0;
+            moves.add(PackedMove.encode(from, to, flags));
         }
-
-        ChessPiece previousOccupant = board.getPiece(currentEndPosition);
-        ChessGame.TeamColor movingPieceColor = board.getPiece(startPosition).getTeamColor();
-        if (previousOccupant != null && previousOccupant.getTeamColor() != movingPieceColor) {
-            moves.add(new ChessMove(startPosition, currentEndPosition));
-        }
-
-        return moves;
-    }
-
-    protected boolean isValidEmptySpace(ChessBoard board, ChessPosition position) {
-        return position.isValidPosition() && board.getPiece(position) == null;
     }
 
-    protected boolean isValidCapturingSpace(ChessBoard board, ChessGame.TeamColor movingPieceColor, ChessPosition position) {
-        return position.isValidPosition()
-                && board.getPiece(position) != null
-                && board.getPiece(position).getTeamColor() != movingPieceColor;
+    /**
+     * @return a bitboard of every square not occupied by a teammate of the piece on the given square.
+     */
+    protected static long emptyOrEnemySquares(ChessBoard board, int square) {
+        return ~board.occupancy(board.getPiece(square).getTeamColor());
     }
-}
\ No newline at end of file
+}
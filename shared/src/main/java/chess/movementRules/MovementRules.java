@@ -0,0 +1,30 @@
+package chess.movementRules;
+
+import chess.ChessPiece;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The MovementRule for each PieceType. Movement rules hold no state, so a single instance of each is shared by every
+ * piece and board.
+ */
+public final class MovementRules {
+    private static final Map<ChessPiece.PieceType, MovementRule> RULES = new EnumMap<>(ChessPiece.PieceType.class);
+
+    static {
+        RULES.put(ChessPiece.PieceType.KING, new KingMovementRule());
+        RULES.put(ChessPiece.PieceType.QUEEN, new QueenMovementRule());
+        RULES.put(ChessPiece.PieceType.BISHOP, new BishopMovementRule());
+        RULES.put(ChessPiece.PieceType.KNIGHT, new KnightMovementRule());
+        RULES.put(ChessPiece.PieceType.ROOK, new RookMovementRule());
+        RULES.put(ChessPiece.PieceType.PAWN, new PawnMovementRule());
+    }
+
+    private MovementRules() {
+    }
+
+    public static MovementRule forType(ChessPiece.PieceType type) {
+        return RULES.get(type);
+    }
+}
@@ -2,93 +2,87 @@ package chess.movementRules;
 
 import chess.*;
 
-import java.util.Collection;
-import java.util.LinkedList;
-
 public class PawnMovementRule extends MovementRule {
 
-    // TODO en passant
-    //  ??? 3-valued variable (left, right, none) that the Board can set
-    //  when this pawn becomes capable of attacking? Make sure it
-    //  resets it afterward!
+    private static final ChessPiece.PieceType[] PROMOTION_PIECES = {ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT};
 
     /**
-     * Calculates all the positions this chess piece can move to. Does not take into account moves that are illegal due
-     * to leaving the king in danger.
+     * Adds every move this Pawn can make. Does not take into account moves that are illegal due to leaving the king
+     * in danger.
      *
-     * @param board         the current ChessBoard.
-     * @param startPosition this Pawn's current position.
-     * @return a Collection of valid moves.
+     * @param board      the current ChessBoard.
+     * @param square     this Pawn's current square.
+     * @param targetMask a bitboard of allowed destination squares.
+     * @param moves      the MoveList to add moves to.
      */
     @Override
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition startPosition) {
-        Collection<ChessPosition> endPositions = new LinkedList<>();
-
-        addForwardEndPositionsIfValid(endPositions, board, startPosition);
-        addDiagonalAttackEndPositionsIfValid(endPositions, board, startPosition, 1);
-        addDiagonalAttackEndPositionsIfValid(endPositions, board, startPosition, -1);
-
-        return createMovesFromEndPositions(endPositions, startPosition, board);
-    }
-
-    private Collection<ChessMove> createMovesFromEndPositions(Collection<ChessPosition> endPositions,
-            ChessPosition startPosition, ChessBoard board) {
-        Collection<ChessMove> moves = new LinkedList<>();
-        for (ChessPosition endPosition : endPositions) {
-            ChessGame.TeamColor color = board.getPiece(startPosition).getTeamColor();
-            if (canPromote(endPosition, color)) {
-                addPromotionMovesFromMove(moves, color, startPosition, endPosition);
-            } else {
-                moves.add(new ChessMove(startPosition, endPosition));
+    public void addMoves(ChessBoard board, int square, long targetMask, MoveList moves) {
+        ChessGame.TeamColor color = board.getPiece(square).getTeamColor();
+        long empty = ~board.occupied();
+        int forward = (color == ChessGame.TeamColor.WHITE) ? 8 : -8;
+
+        int oneStep = square + forward;
+        if (isOnBoard(oneStep) && (empty & 1L << oneStep) != 0) {
+            addIfAllowed(square, oneStep, color, targetMask, 0, moves);
+
+            int twoStep = oneStep + forward;
+            if (isOnStartRow(square, color) && (empty & 1L << twoStep) != 0) {
+                addIfAllowed(square, twoStep, color, targetMask, PackedMove.DOUBLE_PUSH, moves);
             }
         }
-        return moves;
-    }
 
-    private boolean canPromote(ChessPosition endPosition, ChessGame.TeamColor color) {
-        return endPosition.getRow() == 8 && color == ChessGame.TeamColor.WHITE ||
-                endPosition.getRow() == 1 && color == ChessGame.TeamColor.BLACK;
-    }
+        long captures = Attacks.pawnAttacks(color, square) & board.occupancy(ChessPieces.not(color)) & targetMask;
+        for (; captures != 0; captures &= captures - 1) {
+            addIfAllowed(square, Long.numberOfTrailingZeros(captures), color, targetMask, PackedMove.CAPTURE, moves);
+        }
 
-    private void addPromotionMovesFromMove(Collection<ChessMove> moves, ChessGame.TeamColor color,
-            ChessPosition startPosition, ChessPosition endPosition) {
-        if (endPosition.getRow() == 8 && color == ChessGame.TeamColor.WHITE ||
-                endPosition.getRow() == 1 && color == ChessGame.TeamColor.BLACK) {
-            moves.add(new ChessMove(startPosition, endPosition, ChessPiece.PieceType.QUEEN));
-            moves.add(new ChessMove(startPosition, endPosition, ChessPiece.PieceType.BISHOP));
-            moves.add(new ChessMove(startPosition, endPosition, ChessPiece.PieceType.ROOK));
-            moves.add(new ChessMove(startPosition, endPosition, ChessPiece.PieceType.KNIGHT));
+        int enPassantSquare = board.enPassantSquare();
+        if (enPassantSquare != ChessBoard.NO_SQUARE && canCaptureEnPassant(board, square, enPassantSquare, color)
+                && (targetMask & 1L << enPassantSquare) != 0) {
+            moves.add(PackedMove.encode(square, enPassantSquare, PackedMove.EN_PASSANT | PackedMove.CAPTURE));
         }
     }
 
-    private void addForwardEndPositionsIfValid(Collection<ChessPosition> endPositions, ChessBoard board,
-            ChessPosition myPosition) {
-        ChessPiece piece = board.getPiece(myPosition);
-
-        ChessPosition oneStepPosition = shiftRelative(myPosition, piece.getTeamColor(), 1, 0);
-        if (isValidEmptySpace(board, oneStepPosition)) {
-            endPositions.add(oneStepPosition);
+    /**
+     * Checks that the en passant square was skipped by an enemy pawn (rather than by one of this pawn's teammates),
+     * that the enemy pawn is still beside this pawn, and that this pawn attacks the square.
+     */
+    private boolean canCaptureEnPassant(ChessBoard board, int square, int enPassantSquare, ChessGame.TeamColor color) {
+        int captureRow = (color == ChessGame.TeamColor.WHITE) ? 6 : 3;
+        int victimSquare = (square & ~7) | (enPassantSquare & 7);
+        long enemyPawns = board.pieces(ChessPieces.not(color), ChessPiece.PieceType.PAWN);
+        return ChessPositions.row(enPassantSquare) == captureRow
+                && (enemyPawns & 1L << victimSquare) != 0
+                && (Attacks.pawnAttacks(color, square) & 1L << enPassantSquare) != 0;
+    }
 
-            ChessPosition twoStepPosition = shiftRelative(myPosition, piece.getTeamColor(), 2, 0);
-            if (piece.hasNeverMoved() && isOnStartRow(myPosition, piece.getTeamColor()) &&
-                    isValidEmptySpace(board, twoStepPosition)) {
-                endPositions.add(twoStepPosition);
+    private void addIfAllowed(int from, int to, ChessGame.TeamColor color, long targetMask, int flags,
+            MoveList moves) {
+        if ((targetMask & 1L << to) == 0) {
+            return;
+        }
+        if (canPromote(to, color)) {
+            for (ChessPiece.PieceType promotionPiece : PROMOTION_PIECES) {
+                moves.add(PackedMove.encode(from, to, promotionPiece, flags));
             }
+        } else {
+            moves.add(PackedMove.encode(from, to, flags));
         }
     }
 
-    private void addDiagonalAttackEndPositionsIfValid(Collection<ChessPosition> endPositions, ChessBoard board,
-            ChessPosition startPosition, int direction) {
-        int deltaCol = (direction > 0) ? 1 : -1;
-        ChessGame.TeamColor color = board.getPiece(startPosition).getTeamColor();
-        ChessPosition endPosition = shiftRelative(startPosition, color, 1, deltaCol);
-
-        if (isValidCapturingSpace(board, color, endPosition)) endPositions.add(endPosition);
+    private boolean canPromote(int square, ChessGame.TeamColor color) {
+        int row = ChessPositions.row(square);
+        return row == 8 && color == ChessGame.TeamColor.WHITE || row == 1 && color == ChessGame.TeamColor.BLACK;
     }
 
-    private boolean isOnStartRow(ChessPosition position, ChessGame.TeamColor color) {
+    private boolean isOnStartRow(int square, ChessGame.TeamColor color) {
         int startRow = (color == ChessGame.TeamColor.WHITE) ? 2 : 7;
-        return position.getRow() == startRow;
+        return ChessPositions.row(square) == startRow;
+    }
+
+    private boolean isOnBoard(int square) {
+        return 0 <= square && square < 64;
     }
 
-}
\ No newline at end of file
+}
@@ -1,38 +1,23 @@
 package chess.movementRules;
 
+import chess.Attacks;
 import chess.ChessBoard;
-import chess.ChessMove;
-import chess.ChessPosition;
-
-import java.util.Collection;
-import java.util.LinkedList;
+import chess.MoveList;
 
 public class QueenMovementRule extends MovementRule {
 
     /**
-     * Calculates all the positions this chess piece can move to. Does not take into account moves that are illegal due
-     * to leaving the king in danger.
+     * Adds every move this Queen can make. Does not take into account moves that are illegal due to leaving the
+     * king in danger.
      *
      * @param board      the current ChessBoard.
-     * @param myPosition this Queen's current position.
-     * @return a Collection of valid moves.
+     * @param square     this Queen's current square.
+     * @param targetMask a bitboard of allowed destination squares.
+     * @param moves      the MoveList to add moves to.
      */
     @Override
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> moves = new LinkedList<>(new BishopMovementRule().pieceMoves(board, myPosition));
-
-        // Don't just duplicate Rook moves because queens can't castle
-        RelativeChessMove moveUp = pos -> shift(pos, 1, 0);
-        RelativeChessMove moveDown = pos -> shift(pos, -1, 0);
-        RelativeChessMove moveLeft = pos -> shift(pos, 0, -1);
-        RelativeChessMove moveRight = pos -> shift(pos, 0, 1);
-
-        moves.addAll(getMovesFromRepeatedRelativeMove(board, myPosition, moveUp));
-        moves.addAll(getMovesFromRepeatedRelativeMove(board, myPosition, moveDown));
-        moves.addAll(getMovesFromRepeatedRelativeMove(board, myPosition, moveLeft));
-        moves.addAll(getMovesFromRepeatedRelativeMove(board, myPosition, moveRight));
-
-        return moves;
+    public void addMoves(ChessBoard board, int square, long targetMask, MoveList moves) {
+        long targets = Attacks.queenAttacks(square, board.occupied()) & emptyOrEnemySquares(board, square) & targetMask;
+        addMovesToTargets(board, square, targets, moves);
     }
-
 }
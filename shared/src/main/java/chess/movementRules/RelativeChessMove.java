@@ -1,8 +0,0 @@
-package chess.movementRules;
-
-import chess.ChessPosition;
-
-@FunctionalInterface
-public interface RelativeChessMove {
-    ChessPosition apply(ChessPosition position);
-}
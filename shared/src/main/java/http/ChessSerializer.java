@@ -117,6 +117,6 @@ public class ChessSerializer {
         String colFieldName = jsonReader.nextName();
         int col = jsonReader.nextInt();
         jsonReader.endObject();
-        return new ChessPosition(row, col);
+        return ChessPositions.of(row, col);
     }
 }
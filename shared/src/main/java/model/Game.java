@@ -1,18 +1,39 @@
 package model;
 
 import chess.ChessGame;
-
+import chess.GameSnapshot;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A model object representing the core data of a chess game.
+ * <p>
+ * A Game holds its chess state only as an immutable {@link GameSnapshot} in an atomic reference, so readers on other
+ * threads always see either the whole old state or the whole new one. Every ChessGame a Game hands out is a private
+ * copy that the caller may change, or run move generation on, without anyone else seeing.
+ * <p>
+ * To make a move, read the current snapshot, make the move on a copy of it, and publish the result with
+ * {@link #compareAndSetSnapshot}. If another thread published a state in between, that fails instead of silently
+ * dropping the other thread's change, and the move can be tried again on the new state.
  */
 public class Game {
-
     private final int gameID;
     private final ArrayList<String> spectators;
-    private ChessGame chessGame;
+    // Serialized as the ChessGame it holds, under the field name ChessGame-based clients expect
+    @SerializedName("chessGame")
+    @JsonAdapter(SnapshotAdapterFactory.class)
+    private final AtomicReference<GameSnapshot> snapshot;
     private String whiteUsername;
     private String blackUsername;
     private String gameName;
@@ -27,10 +48,13 @@ public class Game {
         this(gameID, gameName, new ChessGame());
     }
 
+    /**
+     * @param chessGame the game's starting state. It is copied, so later changes to it don't affect this Game.
+     */
     public Game(int gameID, String gameName, ChessGame chessGame) {
         this.gameID = gameID;
         this.gameName = gameName;
-        this.chessGame = chessGame;
+        this.snapshot = new AtomicReference<>(GameSnapshot.of(chessGame));
         this.whiteUsername = "";
         this.blackUsername = "";
         this.spectators = new ArrayList<>();
@@ -40,12 +64,40 @@ public class Game {
         return gameID;
     }
 
+    /**
+     * @return a new, mutable copy of the current state. Changing it does not change this Game.
+     */
     public ChessGame chessGame() {
-        return chessGame;
+        return snapshot.get().toChessGame();
     }
 
+    /**
+     * Publishes the given state as this game's current state, whatever the current state is. The ChessGame is copied,
+     * so the caller may keep using it. To change the current state rather than replace it, use
+     * {@link #compareAndSetSnapshot}.
+     */
     public void setChessGame(ChessGame chessGame) {
-        this.chessGame = chessGame;
+        snapshot.set(GameSnapshot.of(chessGame));
+    }
+
+    /**
+     * Publishes the given state, but only if the current state is still the expected one.
+     *
+     * @param expected the snapshot the new state was made from
+     * @param next     the new state
+     * @return true if the new state was published, or false if another state was published after expected
+     */
+    public boolean compareAndSetSnapshot(GameSnapshot expected, GameSnapshot next) {
+        return snapshot.compareAndSet(expected, next);
+    }
+
+    /**
+     * Gets the most recently published state of this game. Never blocks, and never returns a partly updated state.
+     *
+     * @return an immutable snapshot of the current ChessGame
+     */
+    public GameSnapshot snapshot() {
+        return snapshot.get();
     }
 
     public String whiteUsername() {
@@ -78,7 +130,7 @@ public class Game {
 
     @Override
     public int hashCode() {
-        return Objects.hash(gameID, chessGame, gameName);
+        return Objects.hash(gameID, snapshot.get(), gameName);
     }
 
     @Override
@@ -86,11 +138,33 @@ public class Game {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Game game = (Game) o;
-        return gameID == game.gameID && Objects.equals(chessGame, game.chessGame) &&
+        return gameID == game.gameID && Objects.equals(snapshot.get(), game.snapshot.get()) &&
                 Objects.equals(gameName, game.gameName);
     }
 
     public ArrayList<String> getSpectators() {
         return new ArrayList<>(spectators);
     }
+
+    /**
+     * Writes the current snapshot as the JSON of the ChessGame it holds, and reads one back from that JSON.
+     */
+    static final class SnapshotAdapterFactory implements TypeAdapterFactory {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            TypeAdapter<ChessGame> chessGames = gson.getAdapter(ChessGame.class);
+            return (TypeAdapter<T>) new TypeAdapter<AtomicReference<GameSnapshot>>() {
+                @Override
+                public void write(JsonWriter out, AtomicReference<GameSnapshot> snapshot) throws IOException {
+                    chessGames.write(out, snapshot.get().toChessGame());
+                }
+
+                @Override
+                public AtomicReference<GameSnapshot> read(JsonReader in) throws IOException {
+                    return new AtomicReference<>(GameSnapshot.of(chessGames.read(in)));
+                }
+            };
+        }
+    }
 }
@@ -0,0 +1,159 @@
+package chess;
+
+import http.ChessSerializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ChessBoardTest {
+    @Test
+    void bitboards_track_added_and_removed_pieces() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        Assertions.assertEquals(0xFFFFL, board.occupancy(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(0xFFFFL << 48, board.occupancy(ChessGame.TeamColor.BLACK));
+
+        board.removePiece(new ChessPosition(2, 5));
+        board.addPiece(new ChessPosition(4, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+
+        long whitePawns = board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+        Assertions.assertEquals(0, whitePawns & (1L << ChessPositions.index(2, 5)));
+        Assertions.assertNotEquals(0, whitePawns & (1L << ChessPositions.index(4, 5)));
+        Assertions.assertEquals(32, Long.bitCount(board.occupied()));
+    }
+
+    @Test
+    void bitboards_are_rebuilt_after_deserialization() {
+        ChessGame game = new ChessGame();
+        String json = ChessSerializer.gson().toJson(game);
+        ChessGame parsedGame = ChessSerializer.gson().fromJson(json, ChessGame.class);
+
+        ChessBoard board = parsedGame.getBoard();
+        Assertions.assertEquals(new ChessPosition(1, 5), board.getKingPosition(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(new ChessPosition(8, 5), board.getKingPosition(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(16, board.getTeamPieces(ChessGame.TeamColor.BLACK).size());
+    }
+
+    @Test
+    void unmake_move_restores_capture_and_promotion() {
+        ChessBoard board = new ChessBoard();
+        ChessPiece pawn = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+        ChessPiece rook = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        board.addPiece(new ChessPosition(7, 1), pawn);
+        board.addPiece(new ChessPosition(8, 2), rook);
+
+        board.makeMove(new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 2), ChessPiece.PieceType.QUEEN));
+        Assertions.assertEquals(ChessPiece.PieceType.QUEEN, board.getPiece(new ChessPosition(8, 2)).getPieceType());
+        Assertions.assertNull(board.getPiece(new ChessPosition(7, 1)));
+
+        board.unmakeMove();
+        Assertions.assertSame(pawn, board.getPiece(new ChessPosition(7, 1)));
+        Assertions.assertSame(rook, board.getPiece(new ChessPosition(8, 2)));
+        Assertions.assertTrue(pawn.hasNeverMoved());
+        Assertions.assertEquals(0, board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+    }
+
+    @Test
+    void square_attacked_through_open_lines_only() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(4, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(new ChessPosition(6, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+
+        Assertions.assertTrue(board.isSquareAttacked(ChessPositions.index(3, 1), ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(board.isSquareAttacked(ChessPositions.index(5, 1), ChessGame.TeamColor.BLACK));
+        Assertions.assertTrue(board.isSquareAttacked(ChessPositions.index(1, 8), ChessGame.TeamColor.BLACK));
+        Assertions.assertTrue(board.isSquareAttacked(ChessPositions.index(5, 5), ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(board.isSquareAttacked(ChessPositions.index(7, 5), ChessGame.TeamColor.BLACK));
+        Assertions.assertTrue(board.isSquareAttacked(ChessPositions.index(5, 2), ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void moving_a_shared_piece_swaps_in_its_moved_variant() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessPiece pawn = board.getPiece(ChessPositions.of(2, 5));
+        Assertions.assertSame(ChessPieces.FromType(ChessPiece.PieceType.PAWN, ChessGame.TeamColor.WHITE), pawn);
+
+        board.makeMove(PackedMove.encode(ChessPositions.index(2, 5), ChessPositions.index(4, 5), PackedMove.NONE));
+        Assertions.assertTrue(pawn.hasNeverMoved());
+        Assertions.assertSame(ChessPieces.moved(pawn), board.getPiece(ChessPositions.of(4, 5)));
+        Assertions.assertThrows(UnsupportedOperationException.class, pawn::markAsHavingMoved);
+
+        // A copy is the caller's own, so it can be changed
+        ChessPiece copy = pawn.copy();
+        Assertions.assertNotSame(pawn, copy);
+        Assertions.assertEquals(pawn, copy);
+        copy.markAsHavingMoved();
+        Assertions.assertFalse(copy.hasNeverMoved());
+        Assertions.assertTrue(pawn.hasNeverMoved());
+
+        board.unmakeMove();
+        Assertions.assertSame(pawn, board.getPiece(ChessPositions.of(2, 5)));
+    }
+
+    @Test
+    void king_square_and_team_pieces_follow_moves() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPositions.of(1, 5), ChessPieces.FromType(ChessPiece.PieceType.KING, ChessGame.TeamColor.WHITE));
+        board.addPiece(ChessPositions.of(2, 1), ChessPieces.FromType(ChessPiece.PieceType.PAWN, ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(board.containsKing(ChessGame.TeamColor.BLACK));
+
+        var teamPieces = board.getTeamPieces(ChessGame.TeamColor.WHITE);
+        Assertions.assertSame(teamPieces, board.getTeamPieces(ChessGame.TeamColor.WHITE));
+
+        board.makeMove(new ChessMove(ChessPositions.of(1, 5), ChessPositions.of(2, 5)));
+        Assertions.assertEquals(ChessPositions.index(2, 5), board.kingSquare(ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(board.getTeamPieces(ChessGame.TeamColor.WHITE).contains(ChessPositions.of(2, 5)));
+        Assertions.assertFalse(board.getTeamPieces(ChessGame.TeamColor.WHITE).contains(ChessPositions.of(1, 5)));
+
+        board.removePiece(ChessPositions.of(2, 5));
+        Assertions.assertFalse(board.containsKing(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void hash_key_is_updated_incrementally() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        long startKey = board.hashKey();
+
+        board.makeMove(new ChessMove(ChessPositions.of(1, 7), ChessPositions.of(3, 6)));
+        board.makeMove(new ChessMove(ChessPositions.of(8, 7), ChessPositions.of(6, 6)));
+        board.makeMove(new ChessMove(ChessPositions.of(3, 6), ChessPositions.of(1, 7)));
+        board.makeMove(new ChessMove(ChessPositions.of(6, 6), ChessPositions.of(8, 7)));
+        Assertions.assertEquals(startKey, board.hashKey());
+
+        board.makeMove(new ChessMove(ChessPositions.of(2, 5), ChessPositions.of(4, 5)));
+        ChessBoard rebuilt = ChessSerializer.gson().fromJson(ChessSerializer.gson().toJson(board), ChessBoard.class);
+        Assertions.assertEquals(rebuilt.hashKey(), board.hashKey());
+        Assertions.assertNotEquals(startKey, board.hashKey());
+
+        board.unmakeMove();
+        Assertions.assertEquals(startKey, board.hashKey());
+    }
+
+    @Test
+    void castling_and_en_passant_are_undone_with_their_rights() {
+        ChessBoard board = PerftPosition.KIWIPETE.newBoard();
+        long startKey = board.hashKey();
+        Assertions.assertEquals(CastlingRights.ALL, board.castlingRights());
+
+        board.makeMove(new ChessMove(ChessPositions.of(1, 5), ChessPositions.of(1, 7)));
+        Assertions.assertEquals(ChessPiece.PieceType.ROOK, board.getPiece(ChessPositions.of(1, 6)).getPieceType());
+        Assertions.assertEquals(CastlingRights.BLACK_KINGSIDE | CastlingRights.BLACK_QUEENSIDE,
+                board.castlingRights());
+
+        board.makeMove(new ChessMove(ChessPositions.of(7, 3), ChessPositions.of(5, 3)));
+        Assertions.assertEquals(ChessPositions.index(6, 3), board.enPassantSquare());
+        board.makeMove(new ChessMove(ChessPositions.of(5, 4), ChessPositions.of(6, 3)));
+        Assertions.assertNull(board.getPiece(ChessPositions.of(5, 3)));
+        Assertions.assertEquals(ChessBoard.NO_SQUARE, board.enPassantSquare());
+
+        board.unmakeMove();
+        Assertions.assertEquals(ChessPiece.PieceType.PAWN, board.getPiece(ChessPositions.of(5, 3)).getPieceType());
+        board.unmakeMove();
+        board.unmakeMove();
+        Assertions.assertEquals(CastlingRights.ALL, board.castlingRights());
+        Assertions.assertEquals(startKey, board.hashKey());
+    }
+}
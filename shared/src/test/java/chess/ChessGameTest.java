@@ -0,0 +1,40 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ChessGameTest {
+    private static void move(ChessGame game, int fromRow, int fromCol, int toRow, int toCol)
+            throws InvalidMoveException {
+        game.makeMove(new ChessMove(ChessPositions.of(fromRow, fromCol), ChessPositions.of(toRow, toCol)));
+    }
+
+    @Test
+    void status_is_cached_until_the_position_changes() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        GameStatus status = game.getStatus();
+        Assertions.assertEquals(20, status.legalMoveCount());
+        Assertions.assertSame(status, game.getStatus());
+
+        move(game, 2, 5, 4, 5);
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getStatus().teamTurn());
+        Assertions.assertNotSame(status, game.getStatus());
+
+        game.getBoard().removePiece(ChessPositions.of(7, 1));
+        // Black loses two pawn moves, but the rook gains five quiet moves and the capture on a2
+        Assertions.assertEquals(24, game.getStatus().legalMoveCount());
+    }
+
+    @Test
+    void fools_mate_ends_the_game() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        move(game, 2, 6, 3, 6);
+        move(game, 7, 5, 5, 5);
+        move(game, 2, 7, 4, 7);
+        move(game, 8, 4, 4, 8);
+
+        Assertions.assertTrue(game.getStatus().isCheckmate());
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(WinState.BLACK_WIN, game.getWinState());
+    }
+}
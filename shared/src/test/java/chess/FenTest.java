@@ -0,0 +1,95 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FenTest {
+    @Test
+    void start_position_matches_new_game() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(Fen.START_POSITION, game.toFen());
+
+        ChessGame parsed = ChessGame.fromFen(Fen.START_POSITION);
+        Assertions.assertEquals(game.getBoard(), parsed.getBoard());
+        Assertions.assertEquals(game.hashKey(), parsed.hashKey());
+    }
+
+    @Test
+    void standard_positions_round_trip() {
+        for (PerftPosition position : PerftPosition.values()) {
+            Assertions.assertEquals(position.fen(), ChessGame.fromFen(position.fen()).toFen(), position.toString());
+        }
+    }
+
+    @Test
+    void parses_en_passant_square_and_clocks() {
+        ChessGame game = ChessGame.fromFen("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3");
+        Assertions.assertEquals(ChessPositions.index(6, 6), game.getBoard().enPassantSquare());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        Assertions.assertEquals(3, game.getFullmoveNumber());
+        Assertions.assertTrue(game.validMoves(ChessPositions.of(5, 5))
+                .contains(new ChessMove(ChessPositions.of(5, 5), ChessPositions.of(6, 6))));
+    }
+
+    @Test
+    void clocks_are_optional() {
+        ChessGame game = ChessGame.fromFen("8/8/8/4k3/8/8/8/4K3 b - -");
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals("8/8/8/4k3/8/8/8/4K3 b - - 0 1", game.toFen());
+    }
+
+    @Test
+    void moves_update_fen() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPositions.of(2, 5), ChessPositions.of(4, 5)));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", game.toFen());
+        game.makeMove(new ChessMove(ChessPositions.of(8, 7), ChessPositions.of(6, 6)));
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 1 2", game.toFen());
+    }
+
+    @Test
+    void castling_field_marks_kings_and_rooks() {
+        ChessBoard board = Fen.parseBoard("r3k2r/8/8/8/8/8/8/R3K2R w Kq - 0 1");
+        Assertions.assertEquals(CastlingRights.WHITE_KINGSIDE | CastlingRights.BLACK_QUEENSIDE, board.castlingRights());
+        Assertions.assertFalse(board.getPiece(ChessPositions.of(1, 1)).hasNeverMoved());
+        Assertions.assertTrue(board.getPiece(ChessPositions.of(1, 8)).hasNeverMoved());
+    }
+
+    @Test
+    void parses_any_char_sequence() {
+        StringBuilder fen = new StringBuilder(Fen.START_POSITION);
+        Assertions.assertEquals(Fen.START_POSITION, Fen.parseGame(fen).toFen());
+    }
+
+    @Test
+    void rejects_malformed_records() {
+        String[] invalid = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkx - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - zero 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBN1 w KQkq - 0 1",
+        };
+        for (String fen : invalid) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parseGame(fen), fen);
+        }
+    }
+
+    @Test
+    void finished_positions_load_as_finished() {
+        ChessGame mated = ChessGame.fromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        Assertions.assertEquals(WinState.BLACK_WIN, mated.getWinState());
+        Assertions.assertThrows(InvalidMoveException.class,
+                () -> mated.makeMove(new ChessMove(ChessPositions.of(2, 1), ChessPositions.of(3, 1))));
+
+        ChessGame stalemated = ChessGame.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        Assertions.assertEquals(WinState.STALEMATE, stalemated.getWinState());
+        Assertions.assertEquals(WinState.IN_PROGRESS, ChessGame.fromFen(Fen.START_POSITION).getWinState());
+    }
+}
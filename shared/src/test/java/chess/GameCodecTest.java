@@ -0,0 +1,51 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class GameCodecTest {
+    @Test
+    void standard_positions_round_trip() {
+        for (PerftPosition position : PerftPosition.values()) {
+            ChessGame game = ChessGame.fromFen(position.fen());
+            byte[] record = GameCodec.encode(game);
+            Assertions.assertEquals(GameCodec.RECORD_BYTES, record.length);
+
+            ChessGame decoded = GameCodec.decode(record);
+            Assertions.assertEquals(position.fen(), decoded.toFen(), position.toString());
+            Assertions.assertEquals(game.hashKey(), decoded.hashKey(), position.toString());
+            Assertions.assertArrayEquals(record, GameCodec.encode(decoded), position.toString());
+        }
+    }
+
+    @Test
+    void keeps_en_passant_clocks_and_result() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(Uci.parse("e2e4"));
+        game.makeMove(Uci.parse("g8f6"));
+        game.makeMove(Uci.parse("e4e5"));
+        game.makeMove(Uci.parse("d7d5"));
+        game.resign(ChessGame.TeamColor.BLACK);
+
+        ChessGame decoded = GameCodec.decode(GameCodec.encode(game));
+        Assertions.assertEquals(game.toFen(), decoded.toFen());
+        Assertions.assertEquals(WinState.WHITE_WIN, decoded.getWinState());
+        Assertions.assertEquals(game.getBoard(), decoded.getBoard());
+    }
+
+    @Test
+    void encodes_at_offset() {
+        ChessGame game = new ChessGame();
+        byte[] buffer = new byte[GameCodec.RECORD_BYTES + 5];
+        GameCodec.encode(game, buffer, 5);
+        Assertions.assertEquals(Fen.START_POSITION, GameCodec.decode(buffer, 5).toFen());
+    }
+
+    @Test
+    void rejects_corrupt_records() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(new byte[10]));
+        byte[] record = GameCodec.encode(new ChessGame());
+        record[0] = (byte) 0xFF;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(record));
+    }
+}
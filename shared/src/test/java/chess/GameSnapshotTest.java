@@ -0,0 +1,83 @@
+package chess;
+
+import http.ChessSerializer;
+import model.Game;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class GameSnapshotTest {
+    @Test
+    void snapshot_does_not_change_with_game() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        GameSnapshot before = GameSnapshot.of(game);
+        game.makeMove(Uci.parse("e2e4"));
+
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, before.teamTurn());
+        Assertions.assertNotNull(before.getPiece(ChessPositions.of(2, 5)));
+        Assertions.assertNull(before.getPiece(ChessPositions.of(4, 5)));
+        Assertions.assertEquals(Fen.START_POSITION, before.toChessGame().toFen());
+        Assertions.assertNotEquals(before, GameSnapshot.of(game));
+        Assertions.assertEquals(game.hashKey(), GameSnapshot.of(game).hashKey());
+    }
+
+    @Test
+    void copies_are_independent() throws InvalidMoveException {
+        GameSnapshot snapshot = GameSnapshot.of(new ChessGame());
+        ChessGame copy = snapshot.toChessGame();
+        copy.makeMove(Uci.parse("d2d4"));
+        Assertions.assertEquals(Fen.START_POSITION, snapshot.toChessGame().toFen());
+        Assertions.assertEquals(snapshot, GameSnapshot.of(new ChessGame()));
+    }
+
+    @Test
+    void game_publishes_a_snapshot_when_its_chess_game_is_set() throws InvalidMoveException {
+        Game game = new Game(1, "snapshots");
+        GameSnapshot initial = game.snapshot();
+
+        ChessGame next = game.snapshot().toChessGame();
+        next.makeMove(Uci.parse("g1f3"));
+        game.setChessGame(next);
+
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, initial.teamTurn());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.snapshot().teamTurn());
+        Assertions.assertEquals(next.hashKey(), game.snapshot().hashKey());
+    }
+
+    @Test
+    void game_hands_out_private_copies() throws InvalidMoveException {
+        Game game = new Game(3, "copies");
+        ChessGame copy = game.chessGame();
+        copy.makeMove(Uci.parse("e2e4"));
+        // Generating moves on a copy must leave the published state alone
+        copy.getStatus();
+
+        Assertions.assertNotSame(copy, game.chessGame());
+        Assertions.assertEquals(Fen.START_POSITION, game.chessGame().toFen());
+        Assertions.assertEquals(GameSnapshot.of(new ChessGame()), game.snapshot());
+    }
+
+    @Test
+    void stale_compare_and_set_does_not_drop_a_published_move() throws InvalidMoveException {
+        Game game = new Game(4, "races");
+        GameSnapshot start = game.snapshot();
+        ChessGame first = start.toChessGame();
+        first.makeMove(Uci.parse("e2e4"));
+        ChessGame second = start.toChessGame();
+        second.makeMove(Uci.parse("d2d4"));
+
+        Assertions.assertTrue(game.compareAndSetSnapshot(start, GameSnapshot.of(first)));
+        Assertions.assertFalse(game.compareAndSetSnapshot(start, GameSnapshot.of(second)));
+        Assertions.assertEquals(first.toFen(), game.chessGame().toFen());
+    }
+
+    @Test
+    void deserialized_game_rebuilds_its_snapshot() {
+        Game game = new Game(2, "serialized");
+        String json = ChessSerializer.gson().toJson(game);
+        Assertions.assertFalse(json.contains("snapshot"));
+        Assertions.assertTrue(json.contains("\"chessGame\":{"));
+
+        Game copy = ChessSerializer.gson().fromJson(json, Game.class);
+        Assertions.assertEquals(game.snapshot(), copy.snapshot());
+    }
+}
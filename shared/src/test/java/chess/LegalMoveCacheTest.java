@@ -0,0 +1,52 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LegalMoveCacheTest {
+    @Test
+    void capacity_fits_the_memory_budget() {
+        LegalMoveCache cache = new LegalMoveCache(1 << 20, LegalMoveCache.ReplacementPolicy.ALWAYS_REPLACE);
+        Assertions.assertEquals(4096, cache.capacity());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new LegalMoveCache(10, LegalMoveCache.ReplacementPolicy.ALWAYS_REPLACE));
+    }
+
+    @Test
+    void colliding_entries_follow_the_replacement_policy() {
+        // With a single slot, every key collides
+        long budget = LegalMoveCache.ESTIMATED_ENTRY_BYTES;
+        LegalMoveCache.Entry first = new LegalMoveCache.Entry(1, new int[0], false);
+        LegalMoveCache.Entry second = new LegalMoveCache.Entry(2, new int[0], true);
+
+        LegalMoveCache replacing = new LegalMoveCache(budget, LegalMoveCache.ReplacementPolicy.ALWAYS_REPLACE);
+        replacing.put(first);
+        replacing.put(second);
+        Assertions.assertNull(replacing.get(1));
+        Assertions.assertSame(second, replacing.get(2));
+
+        LegalMoveCache keeping = new LegalMoveCache(budget, LegalMoveCache.ReplacementPolicy.KEEP_EXISTING);
+        keeping.put(first);
+        keeping.put(second);
+        Assertions.assertSame(first, keeping.get(1));
+        Assertions.assertNull(keeping.get(2));
+    }
+
+    @Test
+    void other_colors_moves_do_not_poison_the_shared_cache() throws InvalidMoveException {
+        // Same placement and en passant column, but only the second position allows d5xe6
+        String blackToMove = "4k3/8/8/3Pp3/4P3/8/8/4K3 b - e3 0 1";
+        String whiteToMove = "4k3/8/8/3Pp3/4P3/8/8/4K3 w - e6 0 1";
+        ChessPosition d5 = ChessPositions.of(5, 4);
+        ChessMove capture = Uci.parse("d5e6");
+
+        LegalMoveCache.shared().clear();
+        Assertions.assertFalse(ChessGame.fromFen(blackToMove).validMoves(d5).contains(capture));
+        ChessGame game = ChessGame.fromFen(whiteToMove);
+        Assertions.assertDoesNotThrow(() -> game.makeMove(capture));
+
+        LegalMoveCache.shared().clear();
+        Assertions.assertTrue(ChessGame.fromFen(whiteToMove).validMoves(d5).contains(capture));
+        Assertions.assertFalse(ChessGame.fromFen(blackToMove).validMoves(d5).contains(capture));
+    }
+}
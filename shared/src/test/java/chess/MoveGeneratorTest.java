@@ -0,0 +1,72 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class MoveGeneratorTest {
+    private static void place(ChessBoard board, int row, int col, ChessPiece.PieceType type, ChessGame.TeamColor color) {
+        board.addPiece(ChessPositions.of(row, col), ChessPieces.FromType(type, color));
+    }
+
+    private static MoveList legalMovesFrom(ChessBoard board, int row, int col) {
+        MoveGenerator generator = new MoveGenerator();
+        generator.setPosition(board, board.getPiece(ChessPositions.of(row, col)).getTeamColor());
+        MoveList moves = new MoveList();
+        generator.addLegalMoves(ChessPositions.index(row, col), moves);
+        return moves;
+    }
+
+    @Test
+    void pinned_piece_only_moves_along_the_pin() {
+        ChessBoard board = new ChessBoard();
+        place(board, 1, 1, ChessPiece.PieceType.KING, ChessGame.TeamColor.WHITE);
+        place(board, 3, 3, ChessPiece.PieceType.BISHOP, ChessGame.TeamColor.WHITE);
+        place(board, 4, 1, ChessPiece.PieceType.KNIGHT, ChessGame.TeamColor.WHITE);
+        place(board, 6, 6, ChessPiece.PieceType.QUEEN, ChessGame.TeamColor.BLACK);
+        place(board, 8, 1, ChessPiece.PieceType.ROOK, ChessGame.TeamColor.BLACK);
+
+        // The bishop can slide toward the queen or back, and capture it
+        MoveList bishopMoves = legalMovesFrom(board, 3, 3);
+        Assertions.assertEquals(4, bishopMoves.size());
+        for (int i = 0; i < bishopMoves.size(); i++) {
+            int to = PackedMove.to(bishopMoves.get(i));
+            Assertions.assertEquals(ChessPositions.row(to), ChessPositions.column(to));
+        }
+        // A knight can never stay on the line it is pinned along
+        Assertions.assertTrue(legalMovesFrom(board, 4, 1).isEmpty());
+    }
+
+    @Test
+    void check_must_be_blocked_captured_or_escaped() {
+        ChessBoard board = new ChessBoard();
+        place(board, 1, 5, ChessPiece.PieceType.KING, ChessGame.TeamColor.WHITE);
+        place(board, 3, 1, ChessPiece.PieceType.ROOK, ChessGame.TeamColor.WHITE);
+        place(board, 8, 5, ChessPiece.PieceType.ROOK, ChessGame.TeamColor.BLACK);
+
+        MoveGenerator generator = new MoveGenerator();
+        generator.setPosition(board, ChessGame.TeamColor.WHITE);
+        Assertions.assertTrue(generator.isInCheck());
+
+        // The rook can only interpose on e3
+        MoveList rookMoves = legalMovesFrom(board, 3, 1);
+        Assertions.assertEquals(1, rookMoves.size());
+        Assertions.assertEquals(ChessPositions.index(3, 5), PackedMove.to(rookMoves.get(0)));
+
+        // The king can't retreat along the checking line onto a square the rook still covers
+        MoveList kingMoves = legalMovesFrom(board, 1, 5);
+        for (int i = 0; i < kingMoves.size(); i++) {
+            Assertions.assertNotEquals(5, ChessPositions.column(PackedMove.to(kingMoves.get(i))));
+        }
+        Assertions.assertEquals(4, kingMoves.size());
+    }
+
+    @Test
+    void move_list_grows_from_zero_capacity() {
+        MoveList moves = new MoveList(0);
+        for (int i = 0; i < 20; i++) {
+            moves.add(PackedMove.encode(i, i + 8, 0));
+        }
+        Assertions.assertEquals(20, moves.size());
+        Assertions.assertEquals(PackedMove.encode(19, 27, 0), moves.get(19));
+    }
+}
@@ -0,0 +1,70 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class NotationTest {
+    private static ChessMove move(String uci) throws InvalidMoveException {
+        return Uci.parse(uci);
+    }
+
+    @Test
+    void uci_round_trips() throws InvalidMoveException {
+        Assertions.assertEquals(new ChessMove(ChessPositions.of(2, 5), ChessPositions.of(4, 5)), Uci.parse("e2e4"));
+        Assertions.assertEquals("e2e4", Uci.format(Uci.parse("e2e4")));
+        Assertions.assertEquals(new ChessMove(ChessPositions.of(7, 1), ChessPositions.of(8, 1),
+                ChessPiece.PieceType.KNIGHT), Uci.parse("a7a8n"));
+        Assertions.assertEquals("a7a8n", Uci.format(Uci.parse("a7a8n")));
+    }
+
+    @Test
+    void uci_rejects_malformed_and_illegal_moves() {
+        for (String text : new String[]{"", "e2", "e2e9", "i2e4", "e2e2", "e7e8k", "e2e4qq"}) {
+            Assertions.assertThrows(InvalidMoveException.class, () -> Uci.parse(text), text);
+        }
+        Assertions.assertThrows(InvalidMoveException.class, () -> Uci.parse(new ChessGame(), "e2e5"));
+    }
+
+    @Test
+    void san_round_trips_every_legal_move() throws InvalidMoveException {
+        for (PerftPosition position : PerftPosition.values()) {
+            ChessGame game = ChessGame.fromFen(position.fen());
+            for (int move : game.legalPackedMoves()) {
+                String san = San.format(game, PackedMove.toChessMove(move));
+                Assertions.assertEquals(PackedMove.toChessMove(move), San.parse(game, san), position + ": " + san);
+            }
+        }
+    }
+
+    @Test
+    void san_disambiguates_only_when_needed() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/1N3N2/8/8/R3K2R w KQ - 0 1");
+        Assertions.assertEquals("Nbd3", San.format(game, move("b4d3")));
+        Assertions.assertEquals("Nbd5", San.format(game, move("b4d5")));
+        Assertions.assertEquals("Nh5", San.format(game, move("f4h5")));
+        Assertions.assertEquals("Rd1", San.format(game, move("a1d1")));
+        Assertions.assertEquals("O-O", San.format(game, move("e1g1")));
+        Assertions.assertEquals("O-O-O", San.format(game, move("e1c1")));
+
+        ChessGame threeKnights = ChessGame.fromFen("7k/2N5/8/8/8/2N1N3/8/4K3 w - - 0 1");
+        Assertions.assertEquals("Nc3d5", San.format(threeKnights, move("c3d5")));
+        Assertions.assertEquals("N7d5", San.format(threeKnights, move("c7d5")));
+        Assertions.assertEquals("Ned5", San.format(threeKnights, move("e3d5")));
+        Assertions.assertEquals(move("c3d5"), San.parse(threeKnights, "Nc3d5"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> San.parse(threeKnights, "Ncd5"));
+    }
+
+    @Test
+    void san_marks_captures_promotions_check_and_mate() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("r3k3/1P6/8/8/8/8/8/4K2R w K - 0 1");
+        Assertions.assertEquals("bxa8=Q+", San.format(game, move("b7a8q")));
+        Assertions.assertEquals("b8=N", San.format(game, move("b7b8n")));
+        Assertions.assertEquals("Rh8+", San.format(game, move("h1h8")));
+
+        ChessGame foolsMate = ChessGame.fromFen("rnbqkbnr/pppp1ppp/8/4p3/6P1/5P2/PPPPP2P/RNBQKBNR b KQkq g3 0 2");
+        String fenBefore = foolsMate.toFen();
+        Assertions.assertEquals("Qh4#", San.format(foolsMate, move("d8h4")));
+        Assertions.assertEquals(fenBefore, foolsMate.toFen());
+        Assertions.assertEquals(move("d8h4"), San.parse(foolsMate, "Qh4#"));
+    }
+}
@@ -0,0 +1,60 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+class PerftTest {
+    // Keeps the suite quick; run Perft.main for the full depths
+    private static final long MAX_TEST_NODES = 250_000;
+
+    @Test
+    void standard_positions_match_published_counts() {
+        for (PerftPosition position : PerftPosition.values()) {
+            for (int depth = 1; depth <= position.maxDepth(); depth++) {
+                long expected = position.expectedNodes(depth);
+                if (expected > MAX_TEST_NODES) {
+                    break;
+                }
+                long nodes = new Perft(position.newBoard(), position.sideToMove()).count(depth);
+                Assertions.assertEquals(expected, nodes, position + " at depth " + depth);
+            }
+        }
+    }
+
+    @Test
+    void divide_sums_to_count_and_leaves_board_unchanged() {
+        ChessGame game = new ChessGame();
+        long keyBefore = game.hashKey();
+        Perft perft = new Perft(game);
+
+        Map<ChessMove, Long> divide = perft.divide(3);
+        Assertions.assertEquals(20, divide.size());
+        Assertions.assertEquals(8_902, divide.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(600, divide.get(new ChessMove(ChessPositions.of(2, 5), ChessPositions.of(4, 5))));
+        Assertions.assertEquals(keyBefore, game.hashKey());
+    }
+
+    @Test
+    void parallel_count_matches_sequential_count() {
+        PerftPosition position = PerftPosition.MIDDLEGAME;
+        ChessBoard board = position.newBoard();
+        ParallelPerft parallelPerft = new ParallelPerft();
+
+        Assertions.assertEquals(position.expectedNodes(4), parallelPerft.count(board, position.sideToMove(), 4));
+        Assertions.assertEquals(new Perft(board, position.sideToMove()).divide(2),
+                parallelPerft.divide(board, position.sideToMove(), 2));
+    }
+
+    @Test
+    void bulk_counts_are_in_input_order() {
+        ChessGame start = new ChessGame();
+        ChessGame middlegame = new ChessGame();
+        middlegame.setBoard(PerftPosition.MIDDLEGAME.newBoard());
+
+        long[] counts = new ParallelPerft().legalMoveCounts(List.of(start, middlegame, start));
+        Assertions.assertArrayEquals(new long[]{20, 46, 20}, counts);
+    }
+}
@@ -0,0 +1,102 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+class PgnReaderTest {
+    private static final String TWO_GAMES = """
+            [Event "Casual Game"]
+            [White "Anderssen, Adolf"]
+            [Black "Kieseritzky, Lionel"]
+            [Result "1-0"]
+
+            1.e4 e5 2.f4 exf4 3.Bc4 Qh4+ 4.Kf1 b5 5.Bxb5 Nf6 6.Nf3 Qh6 7.d3 Nh5 8.Nh4 Qg5
+            9.Nf5 c6 10.g4 Nf6 11.Rg1 cxb5 12.h4 Qg6 13.h5 Qg5 14.Qf3 Ng8 15.Bxf4 Qf6
+            16.Nc3 Bc5 17.Nd5 Qxb2 18.Bd6 Bxg1 {18...Qxa1+ was better} 19.e5 Qxa1+ 20.Ke2
+            Na6 21.Nxg7+ Kd8 22.Qf6+ Nxf6 23.Be7# 1-0
+
+            [Event "Short"]
+            [Result "0-1"]
+            ; Fool's mate
+            1. f3 e5 2. g4 (2. e4 $2 Nc6) 2... Qh4# 0-1
+            """;
+
+    private static PgnReader reader(String pgn) {
+        return new PgnReader(Channels.newChannel(new ByteArrayInputStream(pgn.getBytes(StandardCharsets.ISO_8859_1))));
+    }
+
+    @Test
+    void reads_tags_and_plays_games() throws IOException, InvalidMoveException {
+        try (PgnReader reader = reader(TWO_GAMES)) {
+            PgnRecord immortal = reader.next();
+            Assertions.assertNotNull(immortal);
+            Assertions.assertEquals("Anderssen, Adolf", immortal.tag("White"));
+            ChessGame game = immortal.play();
+            Assertions.assertEquals(WinState.WHITE_WIN, game.getWinState());
+            Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+
+            PgnRecord foolsMate = reader.next();
+            Assertions.assertNotNull(foolsMate);
+            Assertions.assertEquals("Short", foolsMate.tag("Event"));
+            Assertions.assertEquals(WinState.BLACK_WIN, foolsMate.play().getWinState());
+
+            Assertions.assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void decisive_result_without_mate_is_a_resignation() throws IOException, InvalidMoveException {
+        try (PgnReader reader = reader("[Result \"0-1\"]\r\n\r\n1. e4 e5 2. Qh5 Nc6 0-1\r\n")) {
+            ChessGame game = reader.next().play();
+            Assertions.assertEquals(WinState.BLACK_WIN, game.getWinState());
+            Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        }
+    }
+
+    @Test
+    void starts_from_fen_tag() throws IOException, InvalidMoveException {
+        String pgn = """
+                [FEN "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1"]
+                [SetUp "1"]
+
+                1. O-O O-O-O *
+                """;
+        try (PgnReader reader = reader(pgn)) {
+            ChessGame game = reader.next().play();
+            Assertions.assertEquals("2kr3r/8/8/8/8/8/8/R4RK1 w - - 2 2", game.toFen());
+        }
+    }
+
+    @Test
+    void parentheses_in_comments_inside_variations_are_skipped() throws IOException, InvalidMoveException {
+        String pgn = """
+                1. e4 (1. d4 d5 ; a line comment :) with a parenthesis
+                2. c4 {and a brace comment :)} e6) 1... e5 2. Nf3 *
+                """;
+        try (PgnReader reader = reader(pgn)) {
+            ChessGame game = reader.next().play();
+            Assertions.assertEquals("rnbqkbnr/pppp1ppp/8/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 1 2", game.toFen());
+        }
+    }
+
+    @Test
+    void illegal_move_is_rejected() throws IOException {
+        try (PgnReader reader = reader("1. e4 e5 2. Ke3 *\n")) {
+            PgnRecord record = reader.next();
+            Assertions.assertThrows(InvalidMoveException.class, record::play);
+        }
+    }
+
+    @Test
+    void ambiguous_move_is_rejected() throws IOException {
+        try (PgnReader reader = reader("[FEN \"4k3/8/8/8/8/8/4K3/R6R w - - 0 1\"]\n\nRd1 *\n")) {
+            PgnRecord record = reader.next();
+            Assertions.assertThrows(InvalidMoveException.class, record::play);
+        }
+    }
+}
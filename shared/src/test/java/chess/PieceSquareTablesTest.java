@@ -0,0 +1,97 @@
+package chess;
+
+import chess.engine.TaperedEvaluator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+class PieceSquareTablesTest {
+    private static void assertMatchesFreshBoard(ChessBoard board) {
+        // A copy computes its sums from scratch
+        ChessBoard fresh = board.copy();
+        Assertions.assertEquals(fresh.middlegameScore(), board.middlegameScore());
+        Assertions.assertEquals(fresh.endgameScore(), board.endgameScore());
+        Assertions.assertEquals(fresh.gamePhase(), board.gamePhase());
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            Assertions.assertEquals(fresh.material(color), board.material(color));
+        }
+    }
+
+    @Test
+    void starting_position_is_balanced() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        Assertions.assertEquals(0, board.middlegameScore());
+        Assertions.assertEquals(0, board.endgameScore());
+        Assertions.assertEquals(PieceSquareTables.MAX_PHASE, board.gamePhase());
+        Assertions.assertEquals(8 * PieceSquareTables.PAWN_VALUE + 2 * PieceSquareTables.KNIGHT_VALUE
+                        + 2 * PieceSquareTables.BISHOP_VALUE + 2 * PieceSquareTables.ROOK_VALUE
+                        + PieceSquareTables.QUEEN_VALUE, board.material(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    void sums_follow_random_moves_and_undos() {
+        SplittableRandom random = new SplittableRandom(23);
+        for (PerftPosition position : PerftPosition.values()) {
+            ChessBoard board = position.newBoard();
+            ChessGame.TeamColor side = Fen.parseGame(position.fen()).getTeamTurn();
+            MoveGenerator generator = new MoveGenerator();
+            MoveList moves = new MoveList();
+            int made = 0;
+            for (int ply = 0; ply < 40; ply++) {
+                moves.clear();
+                generator.setPosition(board, side);
+                generator.addLegalMoves(moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                board.makeMove(moves.get(random.nextInt(moves.size())));
+                made++;
+                side = ChessPieces.not(side);
+                assertMatchesFreshBoard(board);
+            }
+            for (; made > 0; made--) {
+                board.unmakeMove();
+                assertMatchesFreshBoard(board);
+            }
+            Assertions.assertEquals(position.newBoard().middlegameScore(), board.middlegameScore());
+        }
+    }
+
+    @Test
+    void sums_follow_forced_moves_and_added_pieces() {
+        ChessBoard board = Fen.parseBoard("4k3/1P6/8/8/3p4/8/8/R3K3 w Q - 0 1");
+        int before = board.endgameScore();
+        ChessMove promotion = new ChessMove(ChessPositions.of(7, 2), ChessPositions.of(8, 2),
+                ChessPiece.PieceType.QUEEN);
+        ChessPiece captured = board.forceApplyMove(promotion);
+        assertMatchesFreshBoard(board);
+        board.forceRestoreFromMove(promotion, captured);
+        Assertions.assertEquals(before, board.endgameScore());
+
+        board.addPiece(ChessPositions.of(5, 5), ChessPieces.FromType(ChessPiece.PieceType.KNIGHT,
+                ChessGame.TeamColor.BLACK));
+        assertMatchesFreshBoard(board);
+        Assertions.assertEquals(3, board.gamePhase());
+        board.removePiece(ChessPositions.of(1, 1));
+        assertMatchesFreshBoard(board);
+        Assertions.assertEquals(1, board.gamePhase());
+    }
+
+    @Test
+    void tapered_evaluation_prefers_better_placement() {
+        TaperedEvaluator evaluator = new TaperedEvaluator();
+        ChessBoard centralKnight = Fen.parseBoard("4k3/8/8/8/3N4/8/8/4K3 w - - 0 1");
+        ChessBoard cornerKnight = Fen.parseBoard("4k3/8/8/8/8/8/8/N3K3 w - - 0 1");
+        Assertions.assertTrue(evaluator.evaluate(centralKnight, ChessGame.TeamColor.WHITE)
+                > evaluator.evaluate(cornerKnight, ChessGame.TeamColor.WHITE));
+
+        // A pawn ending is scored entirely by the endgame tables
+        ChessBoard pawnEnding = Fen.parseBoard("8/8/4k3/8/8/4K3/4P3/8 w - - 0 1");
+        Assertions.assertEquals(0, pawnEnding.gamePhase());
+        Assertions.assertEquals(pawnEnding.endgameScore(), evaluator.evaluate(pawnEnding, ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(-pawnEnding.endgameScore(),
+                evaluator.evaluate(pawnEnding, ChessGame.TeamColor.BLACK));
+    }
+}
@@ -0,0 +1,101 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.PackedMove;
+import chess.PerftPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class LazySmpSearchTest {
+    @Test
+    void table_round_trips_entries() {
+        TranspositionTable table = new TranspositionTable(1 << 10);
+        Assertions.assertEquals(64, table.capacity());
+        int move = PackedMove.encode(12, 28, PackedMove.DOUBLE_PUSH);
+        table.store(0x1234_5678_9ABCL, move, -250, 7, TranspositionTable.LOWER_BOUND);
+
+        long entry = table.probe(0x1234_5678_9ABCL);
+        Assertions.assertEquals(move, TranspositionTable.move(entry));
+        Assertions.assertEquals(-250, TranspositionTable.score(entry));
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+        Assertions.assertEquals(0, table.probe(0x1234_5678_9ABDL));
+    }
+
+    @Test
+    void table_keeps_deeper_bounds_and_adjusts_mate_scores() {
+        TranspositionTable table = new TranspositionTable(1 << 10);
+        table.store(42, PackedMove.NONE, 10, 6, TranspositionTable.UPPER_BOUND);
+        table.store(42, PackedMove.NONE, 20, 3, TranspositionTable.UPPER_BOUND);
+        Assertions.assertEquals(6, TranspositionTable.depth(table.probe(42)));
+        table.store(42, PackedMove.NONE, 20, 3, TranspositionTable.EXACT);
+        Assertions.assertEquals(3, TranspositionTable.depth(table.probe(42)));
+
+        // Mate in 3 plies from the root, stored at ply 1, is mate in 2 plies from the stored position
+        int stored = TranspositionTable.scoreToTable(Search.MATE_SCORE - 3, 1);
+        Assertions.assertEquals(Search.MATE_SCORE - 2, stored);
+        Assertions.assertEquals(Search.MATE_SCORE - 5, TranspositionTable.scoreFromTable(stored, 3));
+        Assertions.assertEquals(-Search.MATE_SCORE + 5, TranspositionTable.scoreFromTable(-stored, 3));
+        Assertions.assertEquals(123, TranspositionTable.scoreFromTable(TranspositionTable.scoreToTable(123, 9), 4));
+    }
+
+    @Test
+    void finds_mate_on_several_threads() {
+        ChessGame game = ChessGame.fromFen("k7/8/1K6/8/8/8/8/1R6 w - - 0 1");
+        try (LazySmpSearch search = new LazySmpSearch(4)) {
+            Assertions.assertEquals(4, search.threads());
+            SearchResult result = search.search(game, SearchLimits.depth(5));
+            Assertions.assertTrue(result.isMate(), "score " + result.score());
+            Assertions.assertEquals(2, result.mateInMoves());
+            Assertions.assertTrue(result.principalVariation().size() >= 3);
+        }
+    }
+
+    @Test
+    void agrees_with_single_threaded_search() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        try (LazySmpSearch search = new LazySmpSearch(3)) {
+            for (int i = 0; i < 3; i++) {
+                SearchResult result = search.search(game, SearchLimits.depth(4));
+                Assertions.assertEquals(new Search().search(game, SearchLimits.depth(4)).bestMove(),
+                        result.bestMove());
+                Assertions.assertEquals(MaterialEvaluator.ROOK_VALUE, result.score());
+            }
+        }
+    }
+
+    @Test
+    void stops_helpers_with_the_main_search() {
+        ChessGame game = ChessGame.fromFen(PerftPosition.KIWIPETE.fen());
+        String fenBefore = game.toFen();
+        try (LazySmpSearch search = new LazySmpSearch(4)) {
+            long start = System.nanoTime();
+            SearchResult result = search.search(game, SearchLimits.millis(200));
+            Assertions.assertTrue(System.nanoTime() - start < 5_000_000_000L);
+            Assertions.assertNotNull(result.bestMove());
+            Assertions.assertTrue(result.nodes() > 0);
+        }
+        Assertions.assertEquals(fenBefore, game.toFen());
+    }
+
+    @Test
+    void rejects_empty_thread_budget() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LazySmpSearch(0));
+        try (LazySmpSearch search = new LazySmpSearch(1)) {
+            Assertions.assertNotNull(search.search(new ChessGame(), SearchLimits.depth(2)).bestMove());
+        }
+    }
+
+    @Test
+    void helpers_stop_before_finishing_their_first_iteration() {
+        Search helper = new Search(new MaterialEvaluator(), new TranspositionTable());
+        helper.setFirstDepth(8);
+        helper.setSharedStop(new AtomicBoolean(true));
+        SearchResult result = helper.search(ChessGame.fromFen(PerftPosition.KIWIPETE.fen()), SearchLimits.depth(8));
+        Assertions.assertEquals(0, result.depth());
+        Assertions.assertEquals(0, result.nodes());
+        Assertions.assertNull(result.bestMove());
+    }
+}
@@ -0,0 +1,112 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import chess.MoveGenerator;
+import chess.MoveList;
+import chess.PackedMove;
+import chess.PerftPosition;
+import chess.Uci;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+class MovePickerTest {
+    private static List<Integer> pickAll(MovePicker picker) {
+        List<Integer> picked = new ArrayList<>();
+        for (int move = picker.next(); move != PackedMove.NONE; move = picker.next()) {
+            picked.add(move);
+        }
+        return picked;
+    }
+
+    @Test
+    void picks_every_legal_move_exactly_once() {
+        MoveHistory history = new MoveHistory();
+        MovePicker picker = new MovePicker(history);
+        MoveGenerator generator = new MoveGenerator();
+        MoveList legal = new MoveList();
+        for (PerftPosition position : PerftPosition.values()) {
+            ChessGame game = ChessGame.fromFen(position.fen());
+            ChessBoard board = game.getBoard();
+            generator.setPosition(board, game.getTeamTurn());
+            legal.clear();
+            generator.addLegalMoves(legal);
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < legal.size(); i++) {
+                expected.add(legal.get(i));
+            }
+
+            // Killers, countermoves and hash moves from elsewhere, legal here or not, must not disturb the set
+            int quiet = legal.get(legal.size() - 1);
+            history.recordCutoff(board, game.getTeamTurn(), quiet, 0, PackedMove.NONE, 3);
+            history.recordCutoff(board, game.getTeamTurn(), PackedMove.encode(0, 63, 0), 0, PackedMove.NONE, 3);
+            for (int hashMove : new int[]{PackedMove.NONE, legal.get(0), quiet, PackedMove.encode(9, 45, 0)}) {
+                picker.setPosition(board, game.getTeamTurn(), hashMove, 0, PackedMove.NONE);
+                List<Integer> picked = pickAll(picker);
+                Assertions.assertEquals(expected.size(), picked.size(), position.toString());
+                Assertions.assertEquals(expected, new HashSet<>(picked), position.toString());
+                if (expected.contains(hashMove)) {
+                    Assertions.assertEquals(hashMove, picked.get(0));
+                }
+            }
+        }
+    }
+
+    @Test
+    void orders_captures_by_mvv_lva_before_quiet_moves() throws InvalidMoveException {
+        // The pawn and the queen can both take the rook; the pawn should go first
+        ChessGame game = ChessGame.fromFen("4k3/8/8/2r1n3/1P6/8/8/2Q1K3 w - - 0 1");
+        MovePicker picker = new MovePicker(new MoveHistory());
+        picker.setPosition(game.getBoard(), game.getTeamTurn(), PackedMove.NONE, 0, PackedMove.NONE);
+        List<Integer> picked = pickAll(picker);
+        Assertions.assertEquals(Uci.parse("b4c5"), PackedMove.toChessMove(picked.get(0)));
+        Assertions.assertEquals(Uci.parse("c1c5"), PackedMove.toChessMove(picked.get(1)));
+        for (int i = 2; i < picked.size(); i++) {
+            Assertions.assertFalse(PackedMove.hasFlag(picked.get(i), PackedMove.CAPTURE));
+        }
+    }
+
+    @Test
+    void tries_killers_and_history_before_other_quiet_moves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessBoard board = game.getBoard();
+        MoveHistory history = new MoveHistory();
+        MovePicker picker = new MovePicker(history);
+        int killer = PackedMove.encode(6, 21, 0);
+        int historyMove = PackedMove.encode(12, 20, 0);
+        history.recordCutoff(board, ChessGame.TeamColor.WHITE, historyMove, 5, PackedMove.NONE, 10);
+        history.recordCutoff(board, ChessGame.TeamColor.WHITE, killer, 3, PackedMove.NONE, 1);
+
+        picker.setPosition(board, ChessGame.TeamColor.WHITE, PackedMove.NONE, 3, PackedMove.NONE);
+        List<Integer> picked = pickAll(picker);
+        Assertions.assertEquals(20, picked.size());
+        Assertions.assertEquals(Uci.parse("g1f3"), PackedMove.toChessMove(picked.get(0)));
+        Assertions.assertEquals(Uci.parse("e2e3"), PackedMove.toChessMove(picked.get(1)));
+    }
+
+    @Test
+    void tries_quiet_queen_promotions_with_the_captures() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/P7/8/8/8/8/8/4K2R w - - 0 1");
+        ChessBoard board = game.getBoard();
+        MoveHistory history = new MoveHistory();
+        MovePicker picker = new MovePicker(history);
+        int promotion = PackedMove.fromChessMove(Uci.parse("a7a8q"));
+        // A killer, and the promotion itself as the other killer, which must still be handed out only once
+        history.recordCutoff(board, ChessGame.TeamColor.WHITE, promotion, 0, PackedMove.NONE, 1);
+        history.recordCutoff(board, ChessGame.TeamColor.WHITE, PackedMove.fromChessMove(Uci.parse("h1h5")), 0,
+                PackedMove.NONE, 1);
+
+        picker.setPosition(board, ChessGame.TeamColor.WHITE, PackedMove.NONE, 0, PackedMove.NONE);
+        List<Integer> picked = pickAll(picker);
+        Assertions.assertEquals(promotion, picked.get(0));
+        Assertions.assertEquals(Uci.parse("h1h5"), PackedMove.toChessMove(picked.get(1)));
+        Assertions.assertEquals(1, picked.stream().filter(move -> move == promotion).count());
+        Assertions.assertEquals(4, picked.stream().filter(PackedMove::isPromotion).count());
+    }
+}
@@ -0,0 +1,78 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Fen;
+import chess.InvalidMoveException;
+import chess.PerftPosition;
+import chess.Uci;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SearchTest {
+    @Test
+    void finds_mate_in_one() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(4));
+        Assertions.assertEquals(Uci.parse("a1a8"), result.bestMove());
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(1, result.mateInMoves());
+    }
+
+    @Test
+    void finds_mate_in_two() throws InvalidMoveException {
+        // 1. Rh1 Kb8 2. Rh8#
+        ChessGame game = ChessGame.fromFen("k7/8/1K6/8/8/8/8/1R6 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(5));
+        Assertions.assertTrue(result.isMate(), "score " + result.score());
+        Assertions.assertEquals(2, result.mateInMoves());
+        Assertions.assertTrue(result.principalVariation().size() >= 3);
+    }
+
+    @Test
+    void wins_hanging_queen() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        Assertions.assertEquals(Uci.parse("d2d5"), result.bestMove());
+        Assertions.assertEquals(MaterialEvaluator.ROOK_VALUE, result.score());
+    }
+
+    @Test
+    void mated_side_has_no_move() {
+        ChessGame game = ChessGame.fromFen("R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        Assertions.assertNull(result.bestMove());
+        Assertions.assertEquals(-Search.MATE_SCORE, result.score());
+    }
+
+    @Test
+    void leaves_game_unchanged_and_respects_node_budget() {
+        ChessGame game = ChessGame.fromFen(PerftPosition.KIWIPETE.fen());
+        String fenBefore = game.toFen();
+        SearchResult result = new Search().search(game, SearchLimits.nodes(20_000));
+        Assertions.assertEquals(fenBefore, game.toFen());
+        Assertions.assertNotNull(result.bestMove());
+        Assertions.assertTrue(result.depth() >= 1);
+        // The budget is only checked once depth 1 is done, so allow for one ply of overshoot
+        Assertions.assertTrue(result.nodes() <= 20_000 + 100, "nodes " + result.nodes());
+        Assertions.assertEquals(result.bestMove(), result.principalVariation().get(0));
+    }
+
+    @Test
+    void respects_time_budget() {
+        ChessGame game = ChessGame.fromFen(Fen.START_POSITION);
+        SearchResult result = new Search().search(game, SearchLimits.millis(100));
+        Assertions.assertNotNull(result.bestMove());
+        Assertions.assertTrue(result.elapsedNanos() < 1_000_000_000L, "took " + result.elapsedNanos() + " ns");
+    }
+
+    @Test
+    void principal_variation_is_playable() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen(PerftPosition.MIDDLEGAME.fen());
+        SearchResult result = new Search().search(game, SearchLimits.depth(4));
+        for (ChessMove move : result.principalVariation()) {
+            game.makeMove(move);
+        }
+        Assertions.assertEquals(4, result.principalVariation().size());
+    }
+}
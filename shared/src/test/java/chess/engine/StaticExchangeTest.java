@@ -0,0 +1,90 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.Fen;
+import chess.InvalidMoveException;
+import chess.MoveGenerator;
+import chess.MoveList;
+import chess.PackedMove;
+import chess.PerftPosition;
+import chess.Uci;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class StaticExchangeTest {
+    private final StaticExchange staticExchange = new StaticExchange();
+
+    private int see(String fen, String uci) throws InvalidMoveException {
+        ChessBoard board = Fen.parseBoard(fen);
+        return staticExchange.evaluate(board, PackedMove.fromChessMove(Uci.parse(uci)));
+    }
+
+    @Test
+    void scores_simple_exchanges() throws InvalidMoveException {
+        // Undefended pawn
+        Assertions.assertEquals(MaterialEvaluator.PAWN_VALUE, see("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1",
+                "e1e5"));
+        // Pawn defended by a knight: RxP NxR
+        Assertions.assertEquals(MaterialEvaluator.PAWN_VALUE - MaterialEvaluator.ROOK_VALUE,
+                see("1k6/5n2/8/4p3/8/8/8/1K2R3 w - - 0 1", "e1e5"));
+        // Pawn takes a defended knight: PxN PxP
+        Assertions.assertEquals(MaterialEvaluator.KNIGHT_VALUE - MaterialEvaluator.PAWN_VALUE,
+                see("1k6/8/3p4/4n3/3P4/8/8/1K6 w - - 0 1", "d4e5"));
+    }
+
+    @Test
+    void counts_batteries_and_stops_when_recapturing_loses() throws InvalidMoveException {
+        // The queen behind the rook joins in once the rook has captured: RxP NxR QxN
+        Assertions.assertEquals(MaterialEvaluator.PAWN_VALUE - MaterialEvaluator.ROOK_VALUE
+                        + MaterialEvaluator.KNIGHT_VALUE,
+                see("1k6/5n2/8/4p3/8/8/4Q3/1K2R3 w - - 0 1", "e1e5"));
+        // Doubled rooks: black won't recapture with the queen, since the second rook would take it
+        Assertions.assertEquals(MaterialEvaluator.PAWN_VALUE, see("1k2q3/8/8/4p3/8/8/4R3/1K2R3 w - - 0 1", "e2e5"));
+        // Queen takes a pawn defended by a pawn
+        Assertions.assertTrue(staticExchange.isLosingCapture(Fen.parseBoard("1k6/8/3p4/4p3/8/8/8/1K2Q3 w - - 0 1"),
+                PackedMove.fromChessMove(Uci.parse("e1e5"))));
+    }
+
+    @Test
+    void handles_en_passant_and_promotion() throws InvalidMoveException {
+        Assertions.assertEquals(MaterialEvaluator.PAWN_VALUE, see("1k6/8/8/3pP3/8/8/8/1K6 w - d6 0 1", "e5d6"));
+        Assertions.assertEquals(MaterialEvaluator.ROOK_VALUE + MaterialEvaluator.QUEEN_VALUE
+                - MaterialEvaluator.PAWN_VALUE, see("1r5k/P7/8/8/8/8/8/1K6 w - - 0 1", "a7b8q"));
+    }
+
+    @Test
+    void captures_only_generation_matches_filtered_moves() {
+        MoveGenerator generator = new MoveGenerator();
+        MoveList all = new MoveList();
+        MoveList captures = new MoveList();
+        for (PerftPosition position : PerftPosition.values()) {
+            ChessGame game = ChessGame.fromFen(position.fen());
+            generator.setPosition(game.getBoard(), game.getTeamTurn());
+            all.clear();
+            captures.clear();
+            generator.addLegalMoves(all);
+            generator.addLegalCaptures(captures);
+            int expected = 0;
+            for (int i = 0; i < all.size(); i++) {
+                if (PackedMove.hasFlag(all.get(i), PackedMove.CAPTURE)) {
+                    expected++;
+                }
+            }
+            Assertions.assertEquals(expected, captures.size(), position.toString());
+            for (int i = 0; i < captures.size(); i++) {
+                Assertions.assertTrue(PackedMove.hasFlag(captures.get(i), PackedMove.CAPTURE));
+            }
+        }
+    }
+
+    @Test
+    void quiescence_sees_the_recapture_at_depth_one() throws InvalidMoveException {
+        // Without quiescence, depth 1 would grab the pawn and miss that the knight recaptures the queen
+        ChessGame game = ChessGame.fromFen("1k6/5n2/8/4p3/8/8/8/1K2Q3 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(1));
+        Assertions.assertNotEquals(Uci.parse("e1e5"), result.bestMove());
+        Assertions.assertEquals(MaterialEvaluator.QUEEN_VALUE - MaterialEvaluator.KNIGHT_VALUE
+                - MaterialEvaluator.PAWN_VALUE, result.score());
+    }
+}